@@ -63,6 +63,8 @@ public class Generator {
         String package_ = "net.samagames.api.stats";
         String package_game = package_ + ".games";
 
+        List<ClassName> gameStatsTypes = new ArrayList<>();
+
         Field[] playerStatisticFields = PlayerStatisticsBean.class.getDeclaredFields();
         for (Field field : playerStatisticFields)
         {
@@ -73,10 +75,12 @@ public class Generator {
             playerStatsBuilder.addMethod(
                     getMethod("get" + statInterface.name.substring(1), ClassName.get(package_game, statInterface.name)));
 
+            gameStatsTypes.add(ClassName.get(package_game, statInterface.name));
             toBuild.add(JavaFile.builder(package_game, statInterface).build());
         }
 
         toBuild.add(JavaFile.builder(package_, playerStatsBuilder.build()).build());
+        toBuild.add(JavaFile.builder(package_, createLazyPlayerStats(package_, gameStatsTypes)).build());
         // END STATISTICS
 
         // SETTINGS
@@ -93,6 +97,101 @@ public class Generator {
         //END SHOP ITEM
     }
 
+    /**
+     * Create an implementation of IPlayerStats fetching each game's
+     * statistics on first access through an IGameStatsLoader
+     */
+    public static TypeSpec createLazyPlayerStats(String package_, List<ClassName> gameStatsTypes)
+    {
+        ClassName playerStats = ClassName.get(package_, "IPlayerStats");
+        ClassName loader = ClassName.get(package_, "IGameStatsLoader");
+
+        TypeSpec.Builder object = TypeSpec.classBuilder("LazyPlayerStats")
+                .addModifiers(Modifier.PUBLIC)
+                .addSuperinterface(playerStats);
+        object.addJavadoc(header);
+
+        object.addField(UUID.class, "player", Modifier.PRIVATE, Modifier.FINAL);
+        object.addField(loader, "loader", Modifier.PRIVATE, Modifier.FINAL);
+
+        object.addMethod(MethodSpec.constructorBuilder()
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(UUID.class, "player")
+                .addParameter(loader, "loader")
+                .addStatement("this.player = player")
+                .addStatement("this.loader = loader")
+                .build());
+
+        MethodSpec.Builder updateStats = MethodSpec.methodBuilder("updateStats")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(void.class);
+
+        MethodSpec.Builder refreshStats = MethodSpec.methodBuilder("refreshStats")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(boolean.class);
+
+        for (ClassName type : gameStatsTypes)
+        {
+            String getterName = "get" + type.simpleName().substring(1);
+            String fieldName = lowerCamelCase(type.simpleName().substring(1));
+
+            object.addField(type, fieldName, Modifier.PRIVATE, Modifier.VOLATILE);
+
+            // Double-checked so concurrent first accesses load the game once
+            object.addMethod(MethodSpec.methodBuilder(getterName)
+                    .addAnnotation(Override.class)
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(type)
+                    .addStatement("$T result = this.$N", type, fieldName)
+                    .beginControlFlow("if (result == null)")
+                    .beginControlFlow("synchronized (this)")
+                    .addStatement("result = this.$N", fieldName)
+                    .beginControlFlow("if (result == null)")
+                    .addStatement("result = this.loader.load(this.player, $T.class)", type)
+                    .addStatement("this.$N = result", fieldName)
+                    .endControlFlow()
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("return result")
+                    .build());
+
+            // Games never accessed have nothing to save or refresh
+            updateStats.beginControlFlow("if (this.$N != null)", fieldName)
+                    .addStatement("this.$N.update()", fieldName)
+                    .endControlFlow();
+
+            refreshStats.beginControlFlow("if (this.$N != null)", fieldName)
+                    .addStatement("this.$N.refresh()", fieldName)
+                    .endControlFlow();
+        }
+
+        refreshStats.addStatement("return true");
+
+        object.addMethod(updateStats.build());
+        object.addMethod(refreshStats.build());
+        object.addMethod(MethodSpec.methodBuilder("getPlayerUUID")
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .returns(UUID.class)
+                .addStatement("return this.player")
+                .build());
+
+        return object.build();
+    }
+
+    public static String lowerCamelCase(String name)
+    {
+        // UHCStatistics gives uhcStatistics
+        int upperCount = 0;
+        while (upperCount < name.length() && Character.isUpperCase(name.charAt(upperCount)))
+            upperCount++;
+
+        int lowered = upperCount > 1 && upperCount < name.length() ? upperCount - 1 : upperCount;
+        return name.substring(0, lowered).toLowerCase() + name.substring(lowered);
+    }
+
     public static void build()
     {
         try {
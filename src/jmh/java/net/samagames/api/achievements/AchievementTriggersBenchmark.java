@@ -0,0 +1,173 @@
+package net.samagames.api.achievements;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AchievementTriggersBenchmark
+{
+    private AchievementTriggers triggers;
+    private IAchievementManager manager;
+    private Set<AchievementTriggers.Event> gameEndEvents;
+    private UUID player;
+
+    @Setup
+    public void setUp()
+    {
+        this.triggers = AchievementTriggers.defaults();
+        this.manager = new StoreAchievementManager();
+        this.gameEndEvents = EnumSet.allOf(AchievementTriggers.Event.class);
+        this.gameEndEvents.remove(AchievementTriggers.Event.WIN);
+        this.player = UUID.randomUUID();
+
+        AchievementProgressStore store = AchievementProgressStore.get();
+        long now = System.currentTimeMillis();
+
+        for (int id : new int[] { 13, 14, 15, 16, 17, 25 })
+        {
+            Achievement achievement = new Achievement(id, "Achievement", null, new String[0]);
+
+            // Already unlocked, so no announcement is measured
+            store.load(this.player, achievement.getOrdinal(), id, 1, now, now);
+        }
+
+        // Never reached, the progress only goes up
+        for (int id : new int[] { 26, 27, 28, 29, 30, 31, 32, 33, 34 })
+            new IncrementationAchievement(id, "Achievement", null, new String[0], Integer.MAX_VALUE);
+    }
+
+    /**
+     * A winner going through the trigger table
+     */
+    @Benchmark
+    public void win()
+    {
+        this.triggers.fire(this.manager, this.player, AchievementTriggers.Event.WIN, 1);
+    }
+
+    /**
+     * A winner going through the calls by ID which
+     * were hard-coded in the game, as a baseline
+     */
+    @Benchmark
+    public void winByIds()
+    {
+        this.manager.getAchievementByID(25).unlock(this.player);
+
+        for (int id : Arrays.asList(26, 27, 28, 29))
+            this.manager.incrementAchievement(this.player, id, 1);
+    }
+
+    /**
+     * Every event of the end of a game but the
+     * victory, each one evaluated once
+     */
+    @Benchmark
+    public void gameEnd()
+    {
+        for (AchievementTriggers.Event event : this.gameEndEvents)
+            this.triggers.fire(this.manager, this.player, event, 1);
+    }
+
+    private static class StoreAchievementManager implements IAchievementManager
+    {
+        @Override
+        public void incrementAchievement(UUID player, IncrementationAchievement achievement, int amount)
+        {
+            achievement.increment(player, amount);
+        }
+
+        @Override
+        public void incrementAchievement(UUID player, int achievement, int amount)
+        {
+            this.incrementAchievement(player, (IncrementationAchievement) this.getAchievementByID(achievement), amount);
+        }
+
+        @Override
+        public void incrementAchievements(UUID player, int[] achievements, int amount)
+        {
+            for (int achievement : achievements)
+                this.incrementAchievement(player, achievement, amount);
+        }
+
+        @Override
+        public Achievement getAchievementByID(int id)
+        {
+            return this.getProgressStore().getAchievementByID(id);
+        }
+
+        @Override
+        public AchievementCategory getAchievementCategoryByID(int id)
+        {
+            return null;
+        }
+
+        @Override
+        public List<Achievement> getAchievements()
+        {
+            List<Achievement> achievements = new ArrayList<>();
+
+            for (int ordinal = 0; ordinal < this.getProgressStore().getAchievementsCount(); ordinal++)
+                achievements.add(this.getProgressStore().getAchievementByOrdinal(ordinal));
+
+            return achievements;
+        }
+
+        @Override
+        public List<AchievementCategory> getAchievementsCategories()
+        {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isUnlocked(UUID player, Achievement achievement)
+        {
+            return achievement.isUnlocked(player);
+        }
+
+        @Override
+        public boolean isUnlocked(UUID player, int id)
+        {
+            Achievement achievement = this.getAchievementByID(id);
+            return achievement != null && achievement.isUnlocked(player);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.samagames.api.player;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurrencyContentionBenchmark
+{
+    private LocalCurrencyBackend backend;
+    private UUID sharedPlayer;
+
+    @Setup
+    public void setUp()
+    {
+        this.backend = new LocalCurrencyBackend();
+        this.sharedPlayer = UUID.randomUUID();
+
+        // Never runs out, every withdrawal goes through the compare-and-set
+        this.backend.setBalance(this.sharedPlayer, CurrencyType.COINS, Long.MAX_VALUE / 2);
+    }
+
+    @State(Scope.Thread)
+    public static class OwnPlayer
+    {
+        private UUID player;
+
+        @Setup
+        public void setUp(CurrencyContentionBenchmark benchmark)
+        {
+            this.player = UUID.randomUUID();
+            benchmark.backend.setBalance(this.player, CurrencyType.COINS, Long.MAX_VALUE / 2);
+        }
+    }
+
+    /**
+     * Every thread buys with the same balance, like a
+     * shared party or guild wallet
+     *
+     * @return Result
+     */
+    @Benchmark
+    @Threads(16)
+    public WithdrawResult sharedBalance()
+    {
+        return this.backend.tryWithdraw(this.sharedPlayer, CurrencyType.COINS, 3L);
+    }
+
+    /**
+     * Every thread buys with its own balance, the
+     * baseline without contention
+     *
+     * @param ownPlayer Player of the thread
+     *
+     * @return Result
+     */
+    @Benchmark
+    @Threads(16)
+    public WithdrawResult ownBalance(OwnPlayer ownPlayer)
+    {
+        return this.backend.tryWithdraw(ownPlayer.player, CurrencyType.COINS, 3L);
+    }
+}
@@ -0,0 +1,110 @@
+package net.samagames.api.pubsub;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryPubSubBenchmark
+{
+    private static final String CHANNEL = "benchmark";
+    private static final int BATCH = 1000;
+
+    @Param({ "1", "8", "64" })
+    private int receivers;
+
+    private InMemoryPubSub pubSub;
+    private String message;
+
+    @Setup
+    public void setUp()
+    {
+        this.pubSub = new InMemoryPubSub();
+        this.message = "{\"player\":\"" + UUID.randomUUID() + "\",\"coins\":42}";
+
+        for (int i = 0; i < this.receivers; i++)
+            this.pubSub.subscribe(CHANNEL, (channel, packet) -> {});
+
+        // Matched by every message, like the network-wide listeners
+        this.pubSub.subscribe("bench*", (pattern, channel, packet) -> {});
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        this.pubSub.shutdown();
+    }
+
+    /**
+     * Messages published then delivered to every
+     * receiver, by batches. Run with {@code -prof gc}
+     * to get the allocation per message.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(BATCH)
+    public void publishThroughput()
+    {
+        long delivered = this.pubSub.getPublishedMessages() + BATCH;
+
+        for (int i = 0; i < BATCH; i++)
+            this.pubSub.send(CHANNEL, this.message);
+
+        this.awaitDelivery(delivered);
+    }
+
+    /**
+     * Time between the publication of a single message
+     * and the end of its delivery to every receiver
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void fanOutLatency()
+    {
+        long delivered = this.pubSub.getPublishedMessages() + 1;
+
+        this.pubSub.send(CHANNEL, this.message);
+        this.awaitDelivery(delivered);
+    }
+
+    private void awaitDelivery(long delivered)
+    {
+        // Spinning, the sleep of awaitDelivery() would be measured instead
+        while (this.pubSub.getDeliveredMessages() < delivered)
+            Thread.yield();
+    }
+}
@@ -13,11 +13,20 @@ import net.samagames.api.options.IServerOptions;
 import net.samagames.api.parties.IPartiesManager;
 import net.samagames.api.permissions.IPermissionsManager;
 import net.samagames.api.player.IPlayerDataManager;
+import net.samagames.api.player.PlayerSessionLoader;
+import net.samagames.api.pubsub.BatchingSender;
 import net.samagames.api.pubsub.IPubSubAPI;
+import net.samagames.api.pubsub.InMemoryPubSub;
+import net.samagames.api.pubsub.PubSubStatistics;
+import net.samagames.api.redis.AsyncRedis;
+import net.samagames.api.redis.RedisBinaryPubSub;
+import net.samagames.api.redis.RedisLeaseManager;
+import net.samagames.api.redis.RedisWriteBehindQueue;
 import net.samagames.api.resourcepacks.IResourcePacksManager;
 import net.samagames.api.settings.ISettingsManager;
 import net.samagames.api.shops.IShopsManager;
 import net.samagames.api.stats.IStatsManager;
+import net.samagames.api.stats.LeaderboardCache;
 import net.samagames.tools.SkyFactory;
 import net.samagames.tools.cameras.CameraManager;
 import net.samagames.tools.npc.NPCManager;
@@ -47,6 +56,14 @@ public abstract class SamaGamesAPI
 {
 	private static SamaGamesAPI instance;
     private JavaPlugin plugin;
+    private IPubSubAPI localPubSub;
+    private RedisLeaseManager redisLeaseManager;
+    private AsyncRedis asyncRedis;
+    private RedisBinaryPubSub redisBinaryPubSub;
+    private BatchingSender pubSubSender;
+    private RedisWriteBehindQueue redisWriteBehind;
+    private PlayerSessionLoader playerSessions;
+    private LeaderboardCache leaderboardCache;
 
     /**
      * Constructor
@@ -57,6 +74,7 @@ public abstract class SamaGamesAPI
     {
 		instance = this;
         this.plugin = plugin;
+        this.playerSessions = new PlayerSessionLoader(plugin);
     }
 
     /**
@@ -92,6 +110,104 @@ public abstract class SamaGamesAPI
      */
     public abstract Jedis getBungeeResource();
 
+    /**
+     * Get the manager leasing the Redis connections given
+     * by {@link #getBungeeResource()}
+     *
+     * @return Instance
+     */
+    public synchronized RedisLeaseManager getRedisLeases()
+    {
+        if (this.redisLeaseManager == null)
+            this.redisLeaseManager = new RedisLeaseManager(this::getBungeeResource);
+
+        return this.redisLeaseManager;
+    }
+
+    /**
+     * Get the facade running Redis commands out of
+     * the main thread
+     *
+     * @return Instance
+     */
+    public synchronized AsyncRedis getAsyncRedis()
+    {
+        if (this.asyncRedis == null)
+            this.asyncRedis = new AsyncRedis(this.getRedisLeases(), 2);
+
+        return this.asyncRedis;
+    }
+
+    /**
+     * Get the Redis PubSub carrying the binary messages,
+     * like the typed packets, without any string conversion
+     *
+     * @return Instance
+     */
+    public synchronized RedisBinaryPubSub getRedisBinaryPubSub()
+    {
+        if (this.redisBinaryPubSub == null)
+            this.redisBinaryPubSub = new RedisBinaryPubSub(this.getRedisLeases(), this::getBungeeResource);
+
+        return this.redisBinaryPubSub;
+    }
+
+    /**
+     * Get the sender pipelining the PubSub messages in
+     * background, to be given by {@link IPubSubAPI#getSender()}
+     *
+     * @return Instance
+     */
+    public synchronized BatchingSender getPubSubSender()
+    {
+        if (this.pubSubSender == null)
+        {
+            this.pubSubSender = new BatchingSender(this::getBungeeResource);
+            this.pubSubSender.setStatistics(PubSubStatistics.getDefault());
+        }
+
+        return this.pubSubSender;
+    }
+
+    /**
+     * Get the queue merging and writing the fire-and-forget
+     * Redis keys in background
+     *
+     * @return Instance
+     */
+    public synchronized RedisWriteBehindQueue getRedisWriteBehind()
+    {
+        if (this.redisWriteBehind == null)
+            this.redisWriteBehind = new RedisWriteBehindQueue(this.getRedisLeases());
+
+        return this.redisWriteBehind;
+    }
+
+    /**
+     * Get the loader fetching the data of the players in
+     * parallel as soon as they log in
+     *
+     * @return Instance
+     */
+    public PlayerSessionLoader getPlayerSessions()
+    {
+        return this.playerSessions;
+    }
+
+    /**
+     * Get the cache of the leaderboards, refreshed in
+     * background so the displays never wait for them
+     *
+     * @return Instance
+     */
+    public synchronized LeaderboardCache getLeaderboardCache()
+    {
+        if (this.leaderboardCache == null)
+            this.leaderboardCache = new LeaderboardCache(this.getStatsManager());
+
+        return this.leaderboardCache;
+    }
+
     /**
      * Get a new instance of the shop manager of
      * a given game code name
@@ -149,6 +265,24 @@ public abstract class SamaGamesAPI
      */
     public abstract IPubSubAPI getPubSub();
 
+    /**
+     * Get the in-process Redis PubSub API used for local runs,
+     * implementations return it from {@link #getPubSub()} when
+     * the server is started with {@code -Dsamagames.pubsub=local}
+     *
+     * @return Instance, {@code null} if not running locally
+     */
+    public synchronized IPubSubAPI getLocalPubSub()
+    {
+        if (!"local".equalsIgnoreCase(System.getProperty("samagames.pubsub")))
+            return null;
+
+        if (this.localPubSub == null)
+            this.localPubSub = new InMemoryPubSub();
+
+        return this.localPubSub;
+    }
+
     /**
      * Get the instance of the resource packs manager
      *
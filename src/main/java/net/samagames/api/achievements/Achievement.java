@@ -1,17 +1,8 @@
 package net.samagames.api.achievements;
 
-import net.samagames.api.SamaGamesAPI;
-import net.samagames.tools.Reflection;
-import net.samagames.tools.chat.fanciful.FancyMessage;
-import org.bukkit.*;
-import org.bukkit.entity.Firework;
-import org.bukkit.entity.Player;
-import org.bukkit.inventory.meta.FireworkMeta;
-
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
+import org.bukkit.ChatColor;
+
 import java.sql.Timestamp;
-import java.time.Instant;
 import java.util.*;
 
 /*
@@ -32,12 +23,17 @@ import java.util.*;
  */
 public class Achievement
 {
-    private static final FireworkEffect FIREWORK_EFFECT;
-
     protected final int id;
     protected final String displayName;
     protected final AchievementCategory parentCategory;
     protected final String[] description;
+    protected final int ordinal;
+
+    /**
+     * @deprecated The progresses are kept by {@link AchievementProgressStore},
+     * this is a view of the ones of this achievement
+     */
+    @Deprecated
     protected Map<UUID, AchievementProgress> progress;
 
     /**
@@ -56,7 +52,8 @@ public class Achievement
         this.description = new String[description.length];
         for (int i = 0; i < description.length; i++)
             this.description[i] = ChatColor.translateAlternateColorCodes('&', description[i]);
-        this.progress = new HashMap<>();
+        this.ordinal = AchievementProgressStore.get().register(this);
+        this.progress = new ProgressView();
     }
 
     /**
@@ -69,21 +66,8 @@ public class Achievement
         if (this instanceof IncrementationAchievement)
             throw new IllegalStateException("Try to unlock incrementation achievement");
 
-        AchievementProgress progress = this.progress.get(player);
-
-        if (progress != null && progress.getUnlockTime() != null)
-            return;
-
-        if (progress == null)
-        {
-            progress = new AchievementProgress(-1, 0, Timestamp.from(Instant.now()), null, true);
-            this.progress.put(player, progress);
-        }
-
-        progress.unlock();
-        progress.setProgress(1);
-
-        this.sendRewardMessage(player);
+        if (AchievementProgressStore.get().unlock(player, this.ordinal))
+            this.sendRewardMessage(player);
     }
 
     /**
@@ -93,63 +77,7 @@ public class Achievement
      */
     protected void sendRewardMessage(UUID uuid)
     {
-        Bukkit.getScheduler().runTask(SamaGamesAPI.get().getPlugin(), () ->
-        {
-            Player player = Bukkit.getPlayer(uuid);
-
-            if (player == null)
-                return;
-
-            Reflection.playSound(player, player.getLocation(), Reflection.PackageType.getServerVersion().equals("v1_8_R3") ? "LEVEL_UP" : "ENTITY_PLAYER_LEVELUP", 1L, 1L);
-
-            Firework firework = player.getWorld().spawn(player.getLocation(), Firework.class);
-            FireworkMeta fireworkMeta = firework.getFireworkMeta();
-            fireworkMeta.setPower(2);
-            fireworkMeta.addEffect(FIREWORK_EFFECT);
-            firework.setFireworkMeta(fireworkMeta);
-
-            String[] array = new String[this.description.length + 2];
-            array[0] = ChatColor.AQUA + this.displayName;
-            array[1] = "";
-
-            for (int i = 0; i < this.description.length; i++)
-                array[i + 2] = ChatColor.GRAY + this.description[i];
-
-            String finalDisplayName = "";
-
-            for (char letter : this.getDisplayName().toCharArray())
-                finalDisplayName += ChatColor.AQUA + "" + letter;
-
-            FancyMessage message = new FancyMessage(ChatColor.DARK_AQUA + "\u25A0 ")
-                    .then(ChatColor.AQUA + player.getName())
-                    .then(ChatColor.WHITE + " a débloqué l'objectif : ")
-                    .then(finalDisplayName)
-                    .tooltip(array)
-                    .then(ChatColor.WHITE + " ! ")
-                    .then(ChatColor.DARK_AQUA + "\u25A0");
-
-            try
-            {
-                FancyMessage personalMessage = new FancyMessage(ChatColor.DARK_AQUA + "\u25A0 ")
-                        .then(ChatColor.AQUA + player.getName())
-                        .then(ChatColor.WHITE + " a débloqué l'objectif : ")
-                        .then(finalDisplayName)
-                        .tooltip(array)
-                        .then(ChatColor.WHITE + " ! ")
-                        .then(ChatColor.DARK_AQUA + "[Tweeter]")
-                        .tooltip(ChatColor.AQUA + "Partager sur Twitter")
-                        .link("https://twitter.com/intent/tweet?text=Je+viens+de+d%C3%A9bloquer+l%27objectif+%27" + URLEncoder.encode(this.getDisplayName(), "UTF-8") + "%27+sur+%40SamaGames_Mc+%21")
-                        .then(ChatColor.DARK_AQUA + " \u25A0");
-
-                personalMessage.send(player);
-                Bukkit.getOnlinePlayers().stream().filter(p -> p.getUniqueId() != uuid).forEach(message::send);
-            }
-            catch (UnsupportedEncodingException e)
-            {
-                e.printStackTrace();
-                Bukkit.getOnlinePlayers().forEach(message::send);
-            }
-        });
+        AchievementAnnouncer.get().announce(uuid, this);
     }
 
     /**
@@ -162,6 +90,17 @@ public class Achievement
         return this.id;
     }
 
+    /**
+     * Get the achievement's dense index in the
+     * progress store
+     *
+     * @return Ordinal
+     */
+    public int getOrdinal()
+    {
+        return this.ordinal;
+    }
+
     /**
      * Get the achievement's display name in GUIs
      *
@@ -200,8 +139,7 @@ public class Achievement
      */
     public boolean isUnlocked(UUID player)
     {
-        AchievementProgress progress = this.progress.get(player);
-        return progress != null && progress.getUnlockTime() != null;
+        return AchievementProgressStore.get().isUnlocked(player, this.ordinal);
     }
 
     /**
@@ -215,7 +153,7 @@ public class Achievement
      */
     public void addProgress(UUID uuid, long progressId, int progress, Timestamp startTime, Timestamp unlockTime)
     {
-        this.progress.put(uuid, new AchievementProgress(progressId, progress, startTime, unlockTime, false));
+        AchievementProgressStore.get().load(uuid, this.ordinal, progressId, progress, startTime == null ? 0L : startTime.getTime(), unlockTime == null ? 0L : unlockTime.getTime());
     }
 
     /**
@@ -225,7 +163,7 @@ public class Achievement
      */
     public void removeProgress(UUID uuid)
     {
-        this.progress.remove(uuid);
+        AchievementProgressStore.get().remove(uuid, this.ordinal);
     }
 
     /**
@@ -236,11 +174,49 @@ public class Achievement
      */
     public AchievementProgress getProgress(UUID uuid)
     {
-        return this.progress.get(uuid);
+        AchievementProgressStore.PlayerRecord record = AchievementProgressStore.get().getRecord(uuid);
+        return record != null && record.hasProgress(this.ordinal) ? new AchievementProgress(AchievementProgressStore.get(), uuid, this.ordinal) : null;
     }
 
-    static
+    private class ProgressView extends AbstractMap<UUID, AchievementProgress>
     {
-        FIREWORK_EFFECT = FireworkEffect.builder().with(FireworkEffect.Type.STAR).withColor(Color.BLUE).withColor(Color.AQUA).withColor(Color.WHITE).build();
+        @Override
+        public AchievementProgress get(Object key)
+        {
+            return key instanceof UUID ? Achievement.this.getProgress((UUID) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return this.get(key) != null;
+        }
+
+        @Override
+        public AchievementProgress remove(Object key)
+        {
+            AchievementProgress previous = this.get(key);
+
+            if (previous != null)
+                Achievement.this.removeProgress((UUID) key);
+
+            return previous;
+        }
+
+        @Override
+        public Set<Entry<UUID, AchievementProgress>> entrySet()
+        {
+            Set<Entry<UUID, AchievementProgress>> entries = new HashSet<>();
+
+            for (UUID player : AchievementProgressStore.get().getPlayers())
+            {
+                AchievementProgress progress = Achievement.this.getProgress(player);
+
+                if (progress != null)
+                    entries.add(new SimpleImmutableEntry<>(player, progress));
+            }
+
+            return entries;
+        }
     }
 }
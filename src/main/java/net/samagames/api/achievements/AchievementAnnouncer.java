@@ -0,0 +1,335 @@
+package net.samagames.api.achievements;
+
+import net.samagames.api.SamaGamesAPI;
+import net.samagames.tools.Reflection;
+import net.samagames.tools.chat.fanciful.FancyMessage;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Color;
+import org.bukkit.FireworkEffect;
+import org.bukkit.entity.Firework;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.meta.FireworkMeta;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementAnnouncer
+{
+    private static final AchievementAnnouncer INSTANCE = new AchievementAnnouncer();
+    private static final FireworkEffect FIREWORK_EFFECT;
+
+    private final Map<Achievement, Template> templates;
+    private final Queue<Unlock> unlocks;
+    private final AtomicBoolean scheduled;
+
+    private final AtomicLong announcedUnlocks;
+    private final AtomicLong sentMessages;
+
+    /**
+     * Constructor
+     */
+    public AchievementAnnouncer()
+    {
+        this.templates = new ConcurrentHashMap<>();
+        this.unlocks = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+
+        this.announcedUnlocks = new AtomicLong();
+        this.sentMessages = new AtomicLong();
+    }
+
+    /**
+     * Announce the unlock of an achievement at the next
+     * tick, with the other unlocks of this tick
+     *
+     * @param player Player
+     * @param achievement Unlocked achievement
+     */
+    public void announce(UUID player, Achievement achievement)
+    {
+        this.unlocks.add(new Unlock(player, achievement));
+
+        // One flush by tick, whatever the number of unlocks
+        if (this.scheduled.compareAndSet(false, true))
+            Bukkit.getScheduler().runTask(SamaGamesAPI.get().getPlugin(), this::flush);
+    }
+
+    /**
+     * Send the queued announcements, every online player
+     * receiving them in a single message
+     */
+    public void flush()
+    {
+        this.scheduled.set(false);
+
+        List<Announcement> announcements = new ArrayList<>();
+        Set<UUID> players = new HashSet<>();
+        Unlock unlock;
+
+        while ((unlock = this.unlocks.poll()) != null)
+        {
+            Player player = Bukkit.getPlayer(unlock.player);
+
+            if (player == null)
+                continue;
+
+            this.celebrate(player);
+
+            players.add(unlock.player);
+            announcements.add(new Announcement(unlock.player, player.getName(), this.getTemplate(unlock.achievement)));
+        }
+
+        if (announcements.isEmpty())
+            return;
+
+        List<Player> sharedRecipients = new ArrayList<>();
+
+        for (Player recipient : Bukkit.getOnlinePlayers())
+        {
+            if (players.contains(recipient.getUniqueId()))
+            {
+                // Their own unlocks get the sharing link
+                render(announcements, recipient.getUniqueId()).send(recipient);
+                this.sentMessages.incrementAndGet();
+            }
+            else
+            {
+                sharedRecipients.add(recipient);
+            }
+        }
+
+        // Serialized once for every player without an unlock
+        if (!sharedRecipients.isEmpty())
+        {
+            render(announcements, null).send(sharedRecipients);
+            this.sentMessages.addAndGet(sharedRecipients.size());
+        }
+
+        this.announcedUnlocks.addAndGet(announcements.size());
+    }
+
+    /**
+     * Get the pre-rendered parts of the announcement
+     * of a given achievement
+     *
+     * @param achievement Achievement
+     *
+     * @return Template
+     */
+    public Template getTemplate(Achievement achievement)
+    {
+        return this.templates.computeIfAbsent(achievement, Template::new);
+    }
+
+    private void celebrate(Player player)
+    {
+        Reflection.playSound(player, player.getLocation(), Reflection.PackageType.getServerVersion().equals("v1_8_R3") ? "LEVEL_UP" : "ENTITY_PLAYER_LEVELUP", 1L, 1L);
+
+        Firework firework = player.getWorld().spawn(player.getLocation(), Firework.class);
+        FireworkMeta fireworkMeta = firework.getFireworkMeta();
+        fireworkMeta.setPower(2);
+        fireworkMeta.addEffect(FIREWORK_EFFECT);
+        firework.setFireworkMeta(fireworkMeta);
+    }
+
+    /**
+     * Get the number of announced unlocks
+     *
+     * @return Unlocks count
+     */
+    public long getAnnouncedUnlocks()
+    {
+        return this.announcedUnlocks.get();
+    }
+
+    /**
+     * Get the number of sent messages, one by player
+     * and by tick having unlocks
+     *
+     * @return Messages count
+     */
+    public long getSentMessages()
+    {
+        return this.sentMessages.get();
+    }
+
+    private static FancyMessage render(List<Announcement> announcements, UUID recipient)
+    {
+        FancyMessage message = null;
+
+        for (Announcement announcement : announcements)
+            message = announcement.append(message, announcement.player.equals(recipient));
+
+        return message;
+    }
+
+    /**
+     * Get the announcer shared by the achievements
+     *
+     * @return Instance
+     */
+    public static AchievementAnnouncer get()
+    {
+        return INSTANCE;
+    }
+
+    public static class Template
+    {
+        private final String coloredName;
+        private final String[] tooltip;
+        private final String tweetLink;
+
+        Template(Achievement achievement)
+        {
+            String[] description = achievement.getDescription();
+
+            this.tooltip = new String[description.length + 2];
+            this.tooltip[0] = ChatColor.AQUA + achievement.getDisplayName();
+            this.tooltip[1] = "";
+
+            for (int i = 0; i < description.length; i++)
+                this.tooltip[i + 2] = ChatColor.GRAY + description[i];
+
+            StringBuilder coloredName = new StringBuilder();
+
+            for (char letter : achievement.getDisplayName().toCharArray())
+                coloredName.append(ChatColor.AQUA).append(letter);
+
+            this.coloredName = coloredName.toString();
+
+            String tweetLink;
+
+            try
+            {
+                tweetLink = "https://twitter.com/intent/tweet?text=Je+viens+de+d%C3%A9bloquer+l%27objectif+%27" + URLEncoder.encode(achievement.getDisplayName(), "UTF-8") + "%27+sur+%40SamaGames_Mc+%21";
+            }
+            catch (UnsupportedEncodingException e)
+            {
+                e.printStackTrace();
+                tweetLink = null;
+            }
+
+            this.tweetLink = tweetLink;
+        }
+
+        /**
+         * Get the display name with a color code
+         * before every letter
+         *
+         * @return Colored name
+         */
+        public String getColoredName()
+        {
+            return this.coloredName;
+        }
+
+        /**
+         * Get the lines shown when hovering the name
+         *
+         * @return Tooltip lines
+         */
+        public String[] getTooltip()
+        {
+            return this.tooltip;
+        }
+
+        /**
+         * Get the link sharing the unlock on Twitter
+         *
+         * @return Link, or {@code null} if not available
+         */
+        public String getTweetLink()
+        {
+            return this.tweetLink;
+        }
+    }
+
+    private static class Announcement
+    {
+        private final UUID player;
+        private final String playerName;
+        private final Template template;
+
+        Announcement(UUID player, String playerName, Template template)
+        {
+            this.player = player;
+            this.playerName = playerName;
+            this.template = template;
+        }
+
+        FancyMessage append(FancyMessage message, boolean personal)
+        {
+            String prefix = ChatColor.DARK_AQUA + "\u25A0 ";
+
+            if (message == null)
+                message = new FancyMessage(prefix);
+            else
+                message.then("\n" + prefix);
+
+            message.then(ChatColor.AQUA + this.playerName)
+                    .then(ChatColor.WHITE + " a débloqué l'objectif : ")
+                    .then(this.template.coloredName)
+                    .tooltip(this.template.tooltip)
+                    .then(ChatColor.WHITE + " ! ");
+
+            if (personal && this.template.tweetLink != null)
+            {
+                message.then(ChatColor.DARK_AQUA + "[Tweeter]")
+                        .tooltip(ChatColor.AQUA + "Partager sur Twitter")
+                        .link(this.template.tweetLink)
+                        .then(ChatColor.DARK_AQUA + " \u25A0");
+            }
+            else
+            {
+                message.then(ChatColor.DARK_AQUA + "\u25A0");
+            }
+
+            return message;
+        }
+    }
+
+    private static class Unlock
+    {
+        private final UUID player;
+        private final Achievement achievement;
+
+        Unlock(UUID player, Achievement achievement)
+        {
+            this.player = player;
+            this.achievement = achievement;
+        }
+    }
+
+    static
+    {
+        FIREWORK_EFFECT = FireworkEffect.builder().with(FireworkEffect.Type.STAR).withColor(Color.BLUE).withColor(Color.AQUA).withColor(Color.WHITE).build();
+    }
+}
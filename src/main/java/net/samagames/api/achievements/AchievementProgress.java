@@ -1,7 +1,7 @@
 package net.samagames.api.achievements;
 
 import java.sql.Timestamp;
-import java.time.Instant;
+import java.util.UUID;
 
 /*
  * This file is part of SamaGamesAPI.
@@ -21,19 +21,15 @@ import java.time.Instant;
  */
 public class AchievementProgress
 {
-    private long progressId;
-    private int progress;
-    private Timestamp startTime;
-    private Timestamp unlockTime;
-    private boolean changed;
+    private final AchievementProgressStore store;
+    private final UUID player;
+    private final int ordinal;
 
-    AchievementProgress(long progressId, int progress, Timestamp startTime, Timestamp unlockTime, boolean changed)
+    AchievementProgress(AchievementProgressStore store, UUID player, int ordinal)
     {
-        this.progressId = progressId;
-        this.progress = progress;
-        this.startTime = startTime;
-        this.unlockTime = unlockTime;
-        this.changed = changed;
+        this.store = store;
+        this.player = player;
+        this.ordinal = ordinal;
     }
 
     /**
@@ -43,7 +39,7 @@ public class AchievementProgress
      */
     public int getProgress()
     {
-        return this.progress;
+        return this.store.getProgress(this.player, this.ordinal);
     }
 
     /**
@@ -53,8 +49,7 @@ public class AchievementProgress
      */
     public void setProgress(int amount)
     {
-        this.progress = amount;
-        this.changed = true;
+        this.store.setProgress(this.player, this.ordinal, amount);
     }
 
     /**
@@ -64,7 +59,9 @@ public class AchievementProgress
      */
     public Timestamp getStartTime()
     {
-        return this.startTime;
+        AchievementProgressStore.PlayerRecord record = this.record();
+        long startTime = record == null ? 0L : record.getStartTime(this.ordinal);
+        return startTime == 0L ? null : new Timestamp(startTime);
     }
 
     /**
@@ -74,7 +71,9 @@ public class AchievementProgress
      */
     public Timestamp getUnlockTime()
     {
-        return this.unlockTime;
+        AchievementProgressStore.PlayerRecord record = this.record();
+        long unlockTime = record == null ? 0L : record.getUnlockTime(this.ordinal);
+        return unlockTime == 0L ? null : new Timestamp(unlockTime);
     }
 
     /**
@@ -84,17 +83,8 @@ public class AchievementProgress
      */
     public long getProgressId()
     {
-        return this.progressId;
-    }
-
-    /**
-     * Internal
-     * Unlock achievement
-     */
-    void unlock()
-    {
-        this.unlockTime = Timestamp.from(Instant.now());
-        this.changed = true;
+        AchievementProgressStore.PlayerRecord record = this.record();
+        return record == null ? -1L : record.getProgressId(this.ordinal);
     }
 
     /**
@@ -104,6 +94,13 @@ public class AchievementProgress
      */
     public boolean isChanged()
     {
-        return this.changed;
+        AchievementProgressStore.PlayerRecord record = this.record();
+        return record != null && record.isChanged(this.ordinal);
+    }
+
+    private AchievementProgressStore.PlayerRecord record()
+    {
+        // Read again each time, the record is replaced when it grows
+        return this.store.getRecord(this.player);
     }
 }
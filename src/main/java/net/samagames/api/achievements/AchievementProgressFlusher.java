@@ -0,0 +1,354 @@
+package net.samagames.api.achievements;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementProgressFlusher
+{
+    private final AchievementProgressStore store;
+    private final IAchievementProgressWriter writer;
+    private final int batchSize;
+    private BukkitTask flushTask;
+
+    private final AtomicLong flushes;
+    private final AtomicLong insertedRows;
+    private final AtomicLong updatedRows;
+    private final AtomicLong failedRows;
+    private final AtomicLong totalFlushTime;
+    private volatile int lastFlushSize;
+    private volatile long lastFlushTime;
+    private volatile long maxFlushTime;
+
+    /**
+     * Constructor
+     *
+     * @param store Store recording the changes
+     * @param writer Writer persisting the rows
+     * @param batchSize Number of collected rows from which a
+     *                  request is sent without waiting for the others
+     */
+    public AchievementProgressFlusher(AchievementProgressStore store, IAchievementProgressWriter writer, int batchSize)
+    {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("Batch size must be positive");
+
+        this.store = store;
+        this.writer = writer;
+        this.batchSize = batchSize;
+
+        this.flushes = new AtomicLong();
+        this.insertedRows = new AtomicLong();
+        this.updatedRows = new AtomicLong();
+        this.failedRows = new AtomicLong();
+        this.totalFlushTime = new AtomicLong();
+    }
+
+    /**
+     * Constructor flushing the shared store by
+     * requests of 500 rows
+     *
+     * @param writer Writer persisting the rows
+     */
+    public AchievementProgressFlusher(IAchievementProgressWriter writer)
+    {
+        this(AchievementProgressStore.get(), writer, 500);
+    }
+
+    /**
+     * Flush the changes periodically
+     *
+     * @param plugin Plugin owning the flush task
+     * @param period Time in ticks between two flushes
+     */
+    public synchronized void start(Plugin plugin, long period)
+    {
+        if (this.flushTask == null)
+            this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, period, period);
+    }
+
+    /**
+     * Stop the periodic flushes and write the
+     * remaining changes
+     */
+    public synchronized void stop()
+    {
+        if (this.flushTask != null)
+        {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+
+        this.flush();
+    }
+
+    /**
+     * Write every changed progress, new ones being
+     * inserted and the others updated
+     *
+     * @return Number of written rows
+     */
+    public synchronized int flush()
+    {
+        long start = System.nanoTime();
+        List<IAchievementProgressWriter.ProgressRow> inserts = new ArrayList<>();
+        List<IAchievementProgressWriter.ProgressRow> updates = new ArrayList<>();
+        List<IAchievementProgressWriter.ProgressRow> failed = new ArrayList<>();
+        List<IAchievementProgressWriter.ProgressRow> removed = new ArrayList<>();
+        Set<UUID> collected = new HashSet<>();
+        int written = 0;
+        UUID player;
+
+        while ((player = this.store.pollDirtyPlayer()) != null)
+        {
+            // Changed again during this flush, its new rows could still lack their ids
+            if (!collected.add(player))
+            {
+                this.store.requeue(player);
+                break;
+            }
+
+            this.collect(player, inserts, updates, removed);
+
+            if (inserts.size() >= this.batchSize)
+                written += this.insert(inserts, failed);
+
+            if (updates.size() >= this.batchSize)
+                written += this.update(updates, failed);
+        }
+
+        written += this.insert(inserts, failed);
+        written += this.update(updates, failed);
+
+        // Marked again after the loop, or they would be polled forever
+        for (IAchievementProgressWriter.ProgressRow row : failed)
+            this.store.markDirty(row.getPlayer(), row.getOrdinal());
+
+        // Removed before their changes were written, a failed one stays changed
+        for (IAchievementProgressWriter.ProgressRow row : removed)
+            this.store.forgetRemoved(row.getPlayer(), row.getOrdinal());
+
+        if (written == 0 && failed.isEmpty())
+            return 0;
+
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        this.flushes.incrementAndGet();
+        this.totalFlushTime.addAndGet(time);
+        this.lastFlushSize = written;
+        this.lastFlushTime = time;
+        this.maxFlushTime = Math.max(this.maxFlushTime, time);
+
+        return written;
+    }
+
+    private void collect(UUID player, List<IAchievementProgressWriter.ProgressRow> inserts, List<IAchievementProgressWriter.ProgressRow> updates, List<IAchievementProgressWriter.ProgressRow> removed)
+    {
+        AchievementProgressStore.PlayerRecord record = this.store.acquireRecord(player);
+
+        if (record == null)
+            return;
+
+        try
+        {
+            // Dequeued first, a change made while collecting queues it again
+            record.dequeue();
+
+            for (int word = 0; word < record.getDirtyWords(); word++)
+            {
+                long bits = record.takeDirtyWord(word);
+
+                while (bits != 0L)
+                {
+                    int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    IAchievementProgressWriter.ProgressRow row = new IAchievementProgressWriter.ProgressRow(player,
+                            this.store.getAchievementByOrdinal(ordinal).getID(), ordinal, record.getProgressId(ordinal),
+                            record.getProgress(ordinal), record.getStartTime(ordinal), record.getUnlockTime(ordinal));
+
+                    if (row.getProgressId() == -1L)
+                        inserts.add(row);
+                    else
+                        updates.add(row);
+
+                    if (record.isRemoved(ordinal))
+                        removed.add(row);
+                }
+            }
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    private int insert(List<IAchievementProgressWriter.ProgressRow> rows, List<IAchievementProgressWriter.ProgressRow> failed)
+    {
+        if (rows.isEmpty())
+            return 0;
+
+        int count = rows.size();
+
+        try
+        {
+            long[] ids = this.writer.insert(rows);
+
+            for (int i = 0; i < count; i++)
+                this.store.setProgressId(rows.get(i).getPlayer(), rows.get(i).getOrdinal(), ids[i]);
+
+            this.insertedRows.addAndGet(count);
+            return count;
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to insert " + count + " achievement progress(es)", e);
+
+            this.failedRows.addAndGet(count);
+            failed.addAll(rows);
+
+            return 0;
+        }
+        finally
+        {
+            rows.clear();
+        }
+    }
+
+    private int update(List<IAchievementProgressWriter.ProgressRow> rows, List<IAchievementProgressWriter.ProgressRow> failed)
+    {
+        if (rows.isEmpty())
+            return 0;
+
+        int count = rows.size();
+
+        try
+        {
+            this.writer.update(rows);
+
+            this.updatedRows.addAndGet(count);
+            return count;
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to update " + count + " achievement progress(es)", e);
+
+            this.failedRows.addAndGet(count);
+            failed.addAll(rows);
+
+            return 0;
+        }
+        finally
+        {
+            rows.clear();
+        }
+    }
+
+    /**
+     * Get the number of flushes having written or
+     * tried to write rows
+     *
+     * @return Flushes count
+     */
+    public long getFlushes()
+    {
+        return this.flushes.get();
+    }
+
+    /**
+     * Get the number of inserted rows
+     *
+     * @return Rows count
+     */
+    public long getInsertedRows()
+    {
+        return this.insertedRows.get();
+    }
+
+    /**
+     * Get the number of updated rows
+     *
+     * @return Rows count
+     */
+    public long getUpdatedRows()
+    {
+        return this.updatedRows.get();
+    }
+
+    /**
+     * Get the number of rows which failed to be written,
+     * retried at the next flush
+     *
+     * @return Rows count
+     */
+    public long getFailedRows()
+    {
+        return this.failedRows.get();
+    }
+
+    /**
+     * Get the number of rows written by the last flush
+     *
+     * @return Rows count
+     */
+    public int getLastFlushSize()
+    {
+        return this.lastFlushSize;
+    }
+
+    /**
+     * Get the time spent by the last flush
+     *
+     * @return Time in milliseconds
+     */
+    public long getLastFlushTime()
+    {
+        return this.lastFlushTime;
+    }
+
+    /**
+     * Get the longest time spent by a flush
+     *
+     * @return Time in milliseconds
+     */
+    public long getMaxFlushTime()
+    {
+        return this.maxFlushTime;
+    }
+
+    /**
+     * Get the average time spent by a flush
+     *
+     * @return Time in milliseconds
+     */
+    public long getAverageFlushTime()
+    {
+        long flushes = this.flushes.get();
+        return flushes == 0 ? 0L : this.totalFlushTime.get() / flushes;
+    }
+}
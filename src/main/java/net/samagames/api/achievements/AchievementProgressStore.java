@@ -0,0 +1,848 @@
+package net.samagames.api.achievements;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementProgressStore
+{
+    private static final AchievementProgressStore INSTANCE = new AchievementProgressStore();
+
+    private final Map<UUID, PlayerRecord> players;
+    private final Queue<UUID> dirtyPlayers;
+    private final Map<AchievementCategory, long[]> categoryMasks;
+    private volatile Achievement[] byId;
+    private volatile Achievement[] byOrdinal;
+
+    /**
+     * Constructor
+     */
+    public AchievementProgressStore()
+    {
+        this.players = new ConcurrentHashMap<>();
+        this.dirtyPlayers = new ConcurrentLinkedQueue<>();
+        this.categoryMasks = new ConcurrentHashMap<>();
+        this.byId = new Achievement[64];
+        this.byOrdinal = new Achievement[0];
+    }
+
+    /**
+     * Register a given achievement, an achievement created again
+     * with the same ID keeps its ordinal
+     *
+     * @param achievement Achievement
+     *
+     * @return Dense ordinal of the achievement
+     */
+    public synchronized int register(Achievement achievement)
+    {
+        int id = achievement.getID();
+
+        if (id < 0)
+            throw new IllegalArgumentException("Achievement ID must be positive");
+
+        Achievement[] byId = this.byId;
+
+        if (id >= byId.length)
+            byId = Arrays.copyOf(byId, Math.max(byId.length * 2, id + 1));
+
+        Achievement previous = byId[id];
+        Achievement[] byOrdinal = this.byOrdinal;
+        int ordinal;
+
+        if (previous != null)
+        {
+            ordinal = previous.getOrdinal();
+        }
+        else
+        {
+            ordinal = byOrdinal.length;
+            byOrdinal = Arrays.copyOf(byOrdinal, ordinal + 1);
+        }
+
+        byId[id] = achievement;
+        byOrdinal[ordinal] = achievement;
+
+        // Published as new arrays, readers never lock
+        this.byId = byId;
+        this.byOrdinal = byOrdinal;
+        this.categoryMasks.clear();
+
+        return ordinal;
+    }
+
+    /**
+     * Get the achievement with the given ID
+     *
+     * @param id ID
+     *
+     * @return Achievement, or {@code null} if not registered
+     */
+    public Achievement getAchievementByID(int id)
+    {
+        Achievement[] byId = this.byId;
+        return id >= 0 && id < byId.length ? byId[id] : null;
+    }
+
+    /**
+     * Get the achievement with the given ordinal
+     *
+     * @param ordinal Ordinal
+     *
+     * @return Achievement
+     */
+    public Achievement getAchievementByOrdinal(int ordinal)
+    {
+        return this.byOrdinal[ordinal];
+    }
+
+    /**
+     * Get the number of registered achievements
+     *
+     * @return Achievements count
+     */
+    public int getAchievementsCount()
+    {
+        return this.byOrdinal.length;
+    }
+
+    /**
+     * Internal function, should only be used by API
+     *
+     * Set the persisted progress of a given player
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     * @param progressId Progress id
+     * @param progress Progress
+     * @param startTime Start time in milliseconds
+     * @param unlockTime Unlock time in milliseconds, 0 if locked
+     */
+    public void load(UUID player, int ordinal, long progressId, int progress, long startTime, long unlockTime)
+    {
+        PlayerRecord record = this.acquireWritableRecord(player, ordinal);
+
+        try
+        {
+            record.progressIds.set(ordinal, progressId);
+            record.progress.set(ordinal, progress);
+            record.unlockTimes.set(ordinal, unlockTime);
+            record.startTimes.set(ordinal, startTime);
+
+            if (unlockTime != 0L)
+                setBit(record.unlocked, ordinal);
+            else
+                clearBit(record.unlocked, ordinal);
+
+            clearBit(record.removed, ordinal);
+            record.clearDirty(ordinal);
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Unlock an achievement for a given player
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     *
+     * @return {@code true} if it was locked, only one caller
+     *         gets it
+     */
+    public boolean unlock(UUID player, int ordinal)
+    {
+        PlayerRecord record = this.acquireWritableRecord(player, ordinal);
+        long now = System.currentTimeMillis();
+
+        try
+        {
+            record.startTimes.compareAndSet(ordinal, 0L, now);
+
+            if (!record.unlockTimes.compareAndSet(ordinal, 0L, now))
+                return false;
+
+            setBit(record.unlocked, ordinal);
+            record.progress.set(ordinal, 1);
+            record.markChanged(ordinal);
+
+            return true;
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Increase the progress of a given player, unlocking the
+     * achievement when it goes past the objective
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     * @param amount Amount
+     * @param objective Achievement's goal to reach
+     *
+     * @return {@code true} if this call unlocked it
+     */
+    public boolean increment(UUID player, int ordinal, int amount, int objective)
+    {
+        PlayerRecord record = this.acquireWritableRecord(player, ordinal);
+        long now = System.currentTimeMillis();
+
+        try
+        {
+            record.startTimes.compareAndSet(ordinal, 0L, now);
+
+            while (record.unlockTimes.get(ordinal) == 0L)
+            {
+                int current = record.progress.get(ordinal);
+
+                if (current + amount > objective)
+                {
+                    if (!record.unlockTimes.compareAndSet(ordinal, 0L, now))
+                        return false;
+
+                    setBit(record.unlocked, ordinal);
+                    record.progress.set(ordinal, objective);
+                    record.markChanged(ordinal);
+
+                    return true;
+                }
+
+                if (record.progress.compareAndSet(ordinal, current, current + amount))
+                {
+                    record.markChanged(ordinal);
+                    return false;
+                }
+            }
+
+            return false;
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Get if an achievement is unlocked for a given player
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     *
+     * @return {@code true} if unlocked
+     */
+    public boolean isUnlocked(UUID player, int ordinal)
+    {
+        PlayerRecord record = this.players.get(player);
+        return record != null && ordinal < record.capacity && testBit(record.unlocked, ordinal);
+    }
+
+    /**
+     * Get the progress of a given player
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     *
+     * @return Progress, 0 if not started
+     */
+    public int getProgress(UUID player, int ordinal)
+    {
+        PlayerRecord record = this.players.get(player);
+        return record != null && ordinal < record.capacity ? record.progress.get(ordinal) : 0;
+    }
+
+    /**
+     * Get the record of a given player
+     *
+     * @param player Player
+     *
+     * @return Record, or {@code null} if nothing is stored
+     */
+    public PlayerRecord getRecord(UUID player)
+    {
+        return this.players.get(player);
+    }
+
+    /**
+     * Get the players having a record
+     *
+     * @return Players, not to be modified
+     */
+    Set<UUID> getPlayers()
+    {
+        return this.players.keySet();
+    }
+
+    /**
+     * Internal function, should only be used by API
+     *
+     * Forget the progress of a given player for
+     * an achievement, a change not yet flushed is
+     * kept until written
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     */
+    public void remove(UUID player, int ordinal)
+    {
+        this.forget(player, ordinal, false);
+    }
+
+    /**
+     * Forget a progress removed while it had changes
+     * to flush, once they are written
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     */
+    void forgetRemoved(UUID player, int ordinal)
+    {
+        this.forget(player, ordinal, true);
+    }
+
+    private void forget(UUID player, int ordinal, boolean onlyRemoved)
+    {
+        PlayerRecord record = this.acquireRecord(player);
+
+        if (record == null)
+            return;
+
+        try
+        {
+            if (ordinal >= record.capacity)
+                return;
+
+            if (onlyRemoved && !testBit(record.removed, ordinal))
+                return;
+
+            // The flusher forgets it after writing the change
+            if (record.isChanged(ordinal))
+            {
+                setBit(record.removed, ordinal);
+                return;
+            }
+
+            record.startTimes.set(ordinal, 0L);
+            record.unlockTimes.set(ordinal, 0L);
+            clearBit(record.unlocked, ordinal);
+            clearBit(record.removed, ordinal);
+            record.progress.set(ordinal, 0);
+            record.progressIds.set(ordinal, -1L);
+        }
+        finally
+        {
+            record.release();
+        }
+
+        // An empty record would be kept until the player leaves
+        this.players.computeIfPresent(player, (key, current) -> current.retireIfEmpty() ? null : current);
+    }
+
+    /**
+     * Get a snapshot of the achievements unlocked by
+     * a given player
+     *
+     * @param player Player
+     *
+     * @return Bitmap, empty if nothing is stored
+     */
+    public AchievementUnlockBitmap getUnlockBitmap(UUID player)
+    {
+        PlayerRecord record = this.players.get(player);
+
+        if (record == null)
+            return new AchievementUnlockBitmap(this, new long[0]);
+
+        long[] words = new long[record.unlocked.length()];
+
+        for (int i = 0; i < words.length; i++)
+            words[i] = record.unlocked.get(i);
+
+        return new AchievementUnlockBitmap(this, words);
+    }
+
+    /**
+     * Get the ordinals of the achievements of a given
+     * category, as a bitmap
+     *
+     * @param category Category
+     *
+     * @return Bitmap words, not to be modified
+     */
+    public long[] getCategoryMask(AchievementCategory category)
+    {
+        return this.categoryMasks.computeIfAbsent(category, key ->
+        {
+            Achievement[] byOrdinal = this.byOrdinal;
+            long[] mask = new long[(byOrdinal.length + 63) >>> 6];
+
+            for (int ordinal = 0; ordinal < byOrdinal.length; ordinal++)
+                if (Objects.equals(byOrdinal[ordinal].getParentCategoryID(), key))
+                    mask[ordinal >>> 6] |= 1L << ordinal;
+
+            return mask;
+        });
+    }
+
+    /**
+     * Get the next player having changes not yet persisted,
+     * every player is given once until changed again
+     *
+     * @return Player, or {@code null} if none
+     */
+    public UUID pollDirtyPlayer()
+    {
+        return this.dirtyPlayers.poll();
+    }
+
+    /**
+     * Get the record of a given player, which can't be
+     * replaced until {@link PlayerRecord#release()}
+     *
+     * @param player Player
+     *
+     * @return Record, or {@code null} if nothing is stored
+     */
+    PlayerRecord acquireRecord(UUID player)
+    {
+        while (true)
+        {
+            PlayerRecord record = this.players.get(player);
+
+            // A retired record is being replaced, the next read gets its successor
+            if (record == null || record.acquire())
+                return record;
+        }
+    }
+
+    /**
+     * Set the id given to a newly inserted progress
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     * @param progressId Progress id
+     */
+    void setProgressId(UUID player, int ordinal, long progressId)
+    {
+        PlayerRecord record = this.acquireRecord(player);
+
+        if (record == null)
+            return;
+
+        try
+        {
+            record.setProgressId(ordinal, progressId);
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Set the progress of a given player
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     * @param progress Progress
+     */
+    void setProgress(UUID player, int ordinal, int progress)
+    {
+        PlayerRecord record = this.acquireWritableRecord(player, ordinal);
+
+        try
+        {
+            record.progress.set(ordinal, progress);
+            record.markChanged(ordinal);
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Mark a progress as changed again, after a
+     * failed write
+     *
+     * @param player Player
+     * @param ordinal Achievement's ordinal
+     */
+    void markDirty(UUID player, int ordinal)
+    {
+        PlayerRecord record = this.acquireRecord(player);
+
+        if (record == null)
+            return;
+
+        try
+        {
+            record.markDirty(ordinal);
+        }
+        finally
+        {
+            record.release();
+        }
+    }
+
+    /**
+     * Give back a player polled but not flushed
+     *
+     * @param player Player
+     */
+    void requeue(UUID player)
+    {
+        this.dirtyPlayers.add(player);
+    }
+
+    /**
+     * Internal function, should only be used by API
+     *
+     * Forget every progress of a given player, the
+     * changes not yet flushed are lost
+     *
+     * @param player Player
+     */
+    public void removePlayer(UUID player)
+    {
+        this.players.computeIfPresent(player, (key, current) ->
+        {
+            current.retire();
+            return null;
+        });
+    }
+
+    private PlayerRecord acquireWritableRecord(UUID player, int ordinal)
+    {
+        while (true)
+        {
+            PlayerRecord record = this.writableRecord(player, ordinal);
+
+            if (record.acquire())
+                return record;
+        }
+    }
+
+    private PlayerRecord writableRecord(UUID player, int ordinal)
+    {
+        PlayerRecord record = this.players.get(player);
+
+        if (record != null && ordinal < record.capacity)
+            return record;
+
+        // Only when an achievement is registered after the player's arrival
+        return this.players.compute(player, (key, current) ->
+        {
+            int capacity = Math.max(ordinal + 1, this.byOrdinal.length);
+
+            if (current == null)
+                return new PlayerRecord(player, this.dirtyPlayers, capacity);
+
+            return current.capacity > ordinal ? current : current.grow(capacity);
+        });
+    }
+
+    private static boolean testBit(AtomicLongArray bits, int index)
+    {
+        return (bits.get(index >>> 6) & (1L << index)) != 0L;
+    }
+
+    private static boolean setBit(AtomicLongArray bits, int index)
+    {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+
+        do
+        {
+            current = bits.get(word);
+
+            if ((current & bit) != 0L)
+                return false;
+        }
+        while (!bits.compareAndSet(word, current, current | bit));
+
+        return true;
+    }
+
+    private static void clearBit(AtomicLongArray bits, int index)
+    {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current;
+
+        do
+        {
+            current = bits.get(word);
+        }
+        while ((current & bit) != 0L && !bits.compareAndSet(word, current, current & ~bit));
+    }
+
+    /**
+     * Get the store shared by the achievements
+     *
+     * @return Instance
+     */
+    public static AchievementProgressStore get()
+    {
+        return INSTANCE;
+    }
+
+    public static class PlayerRecord
+    {
+        private final UUID player;
+        private final Queue<UUID> dirtyPlayers;
+        private final AtomicBoolean queued;
+        private final int capacity;
+        private final AtomicIntegerArray progress;
+        private final AtomicLongArray startTimes;
+        private final AtomicLongArray unlockTimes;
+        private final AtomicLongArray progressIds;
+        private final AtomicLongArray dirty;
+        private final AtomicLongArray unlocked;
+        private final AtomicLongArray removed;
+        private final Lock sharedLock;
+        private final Lock exclusiveLock;
+        private boolean retired;
+
+        PlayerRecord(UUID player, Queue<UUID> dirtyPlayers, int capacity)
+        {
+            this.player = player;
+            this.dirtyPlayers = dirtyPlayers;
+            this.queued = new AtomicBoolean();
+            this.capacity = capacity;
+            this.progress = new AtomicIntegerArray(capacity);
+            this.startTimes = new AtomicLongArray(capacity);
+            this.unlockTimes = new AtomicLongArray(capacity);
+            this.progressIds = new AtomicLongArray(capacity);
+            this.dirty = new AtomicLongArray((capacity + 63) >>> 6);
+            this.unlocked = new AtomicLongArray((capacity + 63) >>> 6);
+            this.removed = new AtomicLongArray((capacity + 63) >>> 6);
+
+            StampedLock lock = new StampedLock();
+            this.sharedLock = lock.asReadLock();
+            this.exclusiveLock = lock.asWriteLock();
+
+            for (int i = 0; i < capacity; i++)
+                this.progressIds.set(i, -1L);
+        }
+
+        PlayerRecord grow(int capacity)
+        {
+            PlayerRecord record = new PlayerRecord(this.player, this.dirtyPlayers, capacity);
+
+            // Writers are held during the copy, then retry on the new record
+            this.exclusiveLock.lock();
+
+            try
+            {
+                for (int i = 0; i < this.capacity; i++)
+                {
+                    record.progress.set(i, this.progress.get(i));
+                    record.startTimes.set(i, this.startTimes.get(i));
+                    record.unlockTimes.set(i, this.unlockTimes.get(i));
+                    record.progressIds.set(i, this.progressIds.get(i));
+                }
+
+                for (int i = 0; i < this.dirty.length(); i++)
+                {
+                    record.dirty.set(i, this.dirty.get(i));
+                    record.unlocked.set(i, this.unlocked.get(i));
+                    record.removed.set(i, this.removed.get(i));
+                }
+
+                record.queued.set(this.queued.get());
+                this.retired = true;
+            }
+            finally
+            {
+                this.exclusiveLock.unlock();
+            }
+
+            return record;
+        }
+
+        /**
+         * Lock the record against its replacement, to
+         * write into it
+         *
+         * @return {@code false} if already replaced
+         */
+        boolean acquire()
+        {
+            this.sharedLock.lock();
+
+            if (!this.retired)
+                return true;
+
+            this.sharedLock.unlock();
+            return false;
+        }
+
+        void release()
+        {
+            this.sharedLock.unlock();
+        }
+
+        void retire()
+        {
+            this.exclusiveLock.lock();
+
+            try
+            {
+                this.retired = true;
+            }
+            finally
+            {
+                this.exclusiveLock.unlock();
+            }
+        }
+
+        boolean retireIfEmpty()
+        {
+            this.exclusiveLock.lock();
+
+            try
+            {
+                for (int i = 0; i < this.dirty.length(); i++)
+                    if (this.dirty.get(i) != 0L || this.unlocked.get(i) != 0L || this.removed.get(i) != 0L)
+                        return false;
+
+                for (int i = 0; i < this.capacity; i++)
+                    if (this.progress.get(i) != 0 || this.startTimes.get(i) != 0L || this.progressIds.get(i) != -1L)
+                        return false;
+
+                this.retired = true;
+                return true;
+            }
+            finally
+            {
+                this.exclusiveLock.unlock();
+            }
+        }
+
+        /**
+         * Get if the player has a progress for a given achievement
+         *
+         * @param ordinal Achievement's ordinal
+         *
+         * @return {@code true} if started
+         */
+        public boolean hasProgress(int ordinal)
+        {
+            return ordinal < this.capacity && (this.startTimes.get(ordinal) != 0L || this.progressIds.get(ordinal) != -1L);
+        }
+
+        public int getProgress(int ordinal)
+        {
+            return this.progress.get(ordinal);
+        }
+
+        public long getStartTime(int ordinal)
+        {
+            return this.startTimes.get(ordinal);
+        }
+
+        public long getUnlockTime(int ordinal)
+        {
+            return this.unlockTimes.get(ordinal);
+        }
+
+        public long getProgressId(int ordinal)
+        {
+            return this.progressIds.get(ordinal);
+        }
+
+        public boolean isChanged(int ordinal)
+        {
+            return testBit(this.dirty, ordinal);
+        }
+
+        void markDirty(int ordinal)
+        {
+            if (!setBit(this.dirty, ordinal))
+                return;
+
+            // Queued once until the flusher takes its changes
+            if (this.queued.compareAndSet(false, true))
+                this.dirtyPlayers.add(this.player);
+        }
+
+        void markChanged(int ordinal)
+        {
+            // Changed again after its removal, it is kept
+            clearBit(this.removed, ordinal);
+            this.markDirty(ordinal);
+        }
+
+        boolean isRemoved(int ordinal)
+        {
+            return testBit(this.removed, ordinal);
+        }
+
+        void clearDirty(int ordinal)
+        {
+            clearBit(this.dirty, ordinal);
+        }
+
+        long takeDirtyWord(int word)
+        {
+            return this.dirty.getAndSet(word, 0L);
+        }
+
+        int getDirtyWords()
+        {
+            return this.dirty.length();
+        }
+
+        void setProgressId(int ordinal, long progressId)
+        {
+            this.progressIds.compareAndSet(ordinal, -1L, progressId);
+        }
+
+        void dequeue()
+        {
+            this.queued.set(false);
+        }
+
+        public UUID getPlayer()
+        {
+            return this.player;
+        }
+
+        public int getCapacity()
+        {
+            return this.capacity;
+        }
+    }
+}
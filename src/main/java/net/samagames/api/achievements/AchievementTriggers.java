@@ -0,0 +1,210 @@
+package net.samagames.api.achievements;
+
+import net.samagames.api.SamaGamesAPI;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementTriggers
+{
+    private static final int[] NONE = new int[0];
+
+    private final Map<Event, int[]> unlocks;
+    private final Map<Event, int[]> increments;
+
+    private final AtomicLong firedEvents;
+    private final AtomicLong totalFireTime;
+
+    /**
+     * Constructor of an empty table
+     */
+    public AchievementTriggers()
+    {
+        this.unlocks = new EnumMap<>(Event.class);
+        this.increments = new EnumMap<>(Event.class);
+
+        this.firedEvents = new AtomicLong();
+        this.totalFireTime = new AtomicLong();
+    }
+
+    /**
+     * Unlock the given achievements when a given
+     * event happens
+     *
+     * @param event Event
+     * @param ids Achievements IDs
+     *
+     * @return This instance
+     */
+    public synchronized AchievementTriggers unlock(Event event, int... ids)
+    {
+        this.unlocks.put(event, concat(this.unlocks.get(event), ids));
+        return this;
+    }
+
+    /**
+     * Increase the given achievements by the amount of
+     * a given event when it happens
+     *
+     * @param event Event
+     * @param ids Achievements IDs
+     *
+     * @return This instance
+     */
+    public synchronized AchievementTriggers increment(Event event, int... ids)
+    {
+        this.increments.put(event, concat(this.increments.get(event), ids));
+        return this;
+    }
+
+    /**
+     * Trigger the achievements of a given event
+     *
+     * @param player Player
+     * @param event Event
+     * @param amount Amount given to the incremented
+     *               achievements
+     */
+    public void fire(UUID player, Event event, int amount)
+    {
+        this.fire(SamaGamesAPI.get().getAchievementManager(), player, event, amount);
+    }
+
+    /**
+     * Trigger the achievements of a given event
+     * through a given manager
+     *
+     * @param manager Achievement manager
+     * @param player Player
+     * @param event Event
+     * @param amount Amount given to the incremented
+     *               achievements
+     */
+    public void fire(IAchievementManager manager, UUID player, Event event, int amount)
+    {
+        long start = System.nanoTime();
+
+        int[] unlocks;
+        int[] increments;
+
+        synchronized (this)
+        {
+            unlocks = this.unlocks.getOrDefault(event, NONE);
+            increments = this.increments.getOrDefault(event, NONE);
+        }
+
+        for (int id : unlocks)
+        {
+            Achievement achievement = manager.getProgressStore().getAchievementByID(id);
+
+            if (achievement == null)
+                achievement = manager.getAchievementByID(id);
+
+            if (achievement != null)
+                achievement.unlock(player);
+        }
+
+        if (increments.length > 0 && amount > 0)
+            manager.incrementAchievements(player, increments, amount);
+
+        this.firedEvents.incrementAndGet();
+        this.totalFireTime.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Trigger the achievements of the given events
+     *
+     * @param player Player
+     * @param events Events
+     * @param amount Amount given to the incremented
+     *               achievements
+     */
+    public void fire(UUID player, Set<Event> events, int amount)
+    {
+        IAchievementManager manager = SamaGamesAPI.get().getAchievementManager();
+
+        for (Event event : events)
+            this.fire(manager, player, event, amount);
+    }
+
+    /**
+     * Get the number of fired events
+     *
+     * @return Events count
+     */
+    public long getFiredEvents()
+    {
+        return this.firedEvents.get();
+    }
+
+    /**
+     * Get the average time spent to fire an event
+     *
+     * @return Time in nanoseconds
+     */
+    public long getAverageFireTime()
+    {
+        long events = this.firedEvents.get();
+        return events == 0 ? 0L : this.totalFireTime.get() / events;
+    }
+
+    private static int[] concat(int[] current, int[] ids)
+    {
+        if (current == null)
+            return ids.clone();
+
+        int[] result = Arrays.copyOf(current, current.length + ids.length);
+        System.arraycopy(ids, 0, result, current.length, ids.length);
+
+        return result;
+    }
+
+    /**
+     * Get the table of the network achievements
+     *
+     * @return New instance
+     */
+    public static AchievementTriggers defaults()
+    {
+        return new AchievementTriggers()
+                .unlock(Event.WIN, 25)
+                .increment(Event.WIN, 26, 27, 28, 29)
+                .unlock(Event.PLAYED_WITH_STAFF, 15)
+                .unlock(Event.PLAYED_WITH_GAME_CREATOR, 16)
+                .unlock(Event.PLAYED_WITH_COUPAING, 13)
+                .unlock(Event.PLAYED_WITH_SAMALLIE, 14)
+                .unlock(Event.PLAYED_WITH_HIDDEN, 17)
+                .increment(Event.COINS_EARNED, 30, 31, 32, 33, 34);
+    }
+
+    public enum Event
+    {
+        WIN,
+        PLAYED_WITH_STAFF,
+        PLAYED_WITH_GAME_CREATOR,
+        PLAYED_WITH_COUPAING,
+        PLAYED_WITH_SAMALLIE,
+        PLAYED_WITH_HIDDEN,
+        COINS_EARNED
+    }
+}
@@ -0,0 +1,203 @@
+package net.samagames.api.achievements;
+
+import net.samagames.api.pubsub.PacketBuffer;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementUnlockBitmap
+{
+    private static final byte VERSION = 2;
+
+    private final AchievementProgressStore store;
+    private final long[] words;
+
+    AchievementUnlockBitmap(AchievementProgressStore store, long[] words)
+    {
+        this.store = store;
+        this.words = words;
+    }
+
+    /**
+     * Get if the achievement of a given ordinal
+     * is unlocked
+     *
+     * @param ordinal Achievement's ordinal
+     *
+     * @return {@code true} if unlocked
+     */
+    public boolean isUnlocked(int ordinal)
+    {
+        int word = ordinal >>> 6;
+        return word < this.words.length && (this.words[word] & (1L << ordinal)) != 0L;
+    }
+
+    /**
+     * Get if a given achievement is unlocked
+     *
+     * @param achievement Achievement
+     *
+     * @return {@code true} if unlocked
+     */
+    public boolean isUnlocked(Achievement achievement)
+    {
+        return this.isUnlocked(achievement.getOrdinal());
+    }
+
+    /**
+     * Get the number of unlocked achievements
+     *
+     * @return Unlocked count
+     */
+    public int count()
+    {
+        int count = 0;
+
+        for (long word : this.words)
+            count += Long.bitCount(word);
+
+        return count;
+    }
+
+    /**
+     * Get the number of unlocked achievements of
+     * a given category
+     *
+     * @param category Category
+     *
+     * @return Unlocked count
+     */
+    public int count(AchievementCategory category)
+    {
+        long[] mask = this.store.getCategoryMask(category);
+        int length = Math.min(mask.length, this.words.length);
+        int count = 0;
+
+        for (int i = 0; i < length; i++)
+            count += Long.bitCount(this.words[i] & mask[i]);
+
+        return count;
+    }
+
+    /**
+     * Call a given consumer with the ordinal of every
+     * unlocked achievement, in ascending order
+     *
+     * @param consumer Consumer
+     */
+    public void forEachOrdinal(IntConsumer consumer)
+    {
+        for (int i = 0; i < this.words.length; i++)
+        {
+            long word = this.words[i];
+
+            while (word != 0L)
+            {
+                consumer.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Call a given consumer with every unlocked
+     * achievement
+     *
+     * @param consumer Consumer
+     */
+    public void forEach(Consumer<Achievement> consumer)
+    {
+        this.forEachOrdinal(ordinal -> consumer.accept(this.store.getAchievementByOrdinal(ordinal)));
+    }
+
+    /**
+     * Serialize the bitmap as the sorted IDs of the unlocked
+     * achievements, so it can be read by a server registering
+     * them in another order
+     *
+     * @return Bytes
+     */
+    public byte[] toBytes()
+    {
+        int[] ids = new int[this.count()];
+        int count = 0;
+
+        for (int i = 0; i < this.words.length; i++)
+        {
+            long word = this.words[i];
+
+            while (word != 0L)
+            {
+                ids[count++] = this.store.getAchievementByOrdinal((i << 6) + Long.numberOfTrailingZeros(word)).getID();
+                word &= word - 1;
+            }
+        }
+
+        Arrays.sort(ids);
+
+        // Gaps between the IDs, a few bytes each whatever their size
+        PacketBuffer buffer = new PacketBuffer(2 + count * 2);
+        buffer.writeByte(VERSION);
+        buffer.writeVarInt(count);
+
+        int previous = 0;
+
+        for (int id : ids)
+        {
+            buffer.writeVarInt(id - previous);
+            previous = id;
+        }
+
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Read a bitmap serialized by {@link #toBytes()}, the
+     * unknown achievements being ignored
+     *
+     * @param store Store registering the achievements
+     * @param bytes Bytes
+     *
+     * @return Bitmap
+     */
+    public static AchievementUnlockBitmap fromBytes(AchievementProgressStore store, byte[] bytes)
+    {
+        PacketBuffer buffer = new PacketBuffer(bytes, 0, bytes.length);
+
+        if (buffer.readByte() != VERSION)
+            throw new IllegalArgumentException("Unknown bitmap version");
+
+        int count = buffer.readVarInt();
+        long[] words = new long[(store.getAchievementsCount() + 63) >>> 6];
+        int id = 0;
+
+        for (int i = 0; i < count; i++)
+        {
+            id += buffer.readVarInt();
+
+            Achievement achievement = store.getAchievementByID(id);
+
+            if (achievement != null)
+                words[achievement.getOrdinal() >>> 6] |= 1L << achievement.getOrdinal();
+        }
+
+        return new AchievementUnlockBitmap(store, words);
+    }
+}
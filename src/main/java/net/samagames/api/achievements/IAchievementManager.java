@@ -99,4 +99,28 @@ public interface IAchievementManager
      * @return {@code true} if unlocked
      */
     boolean isUnlocked(UUID player, int id);
+
+    /**
+     * Get the store holding the progress of the online
+     * players, indexed by the achievements' ordinals
+     *
+     * @return Instance
+     */
+    default AchievementProgressStore getProgressStore()
+    {
+        return AchievementProgressStore.get();
+    }
+
+    /**
+     * Get the achievements unlocked by the given player,
+     * to check many of them without a lookup for each
+     *
+     * @param player Player
+     *
+     * @return Bitmap snapshot
+     */
+    default AchievementUnlockBitmap getUnlockBitmap(UUID player)
+    {
+        return this.getProgressStore().getUnlockBitmap(player);
+    }
 }
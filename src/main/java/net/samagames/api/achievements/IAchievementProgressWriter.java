@@ -0,0 +1,101 @@
+package net.samagames.api.achievements;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public interface IAchievementProgressWriter
+{
+    /**
+     * Insert new progress rows in a single request
+     *
+     * @param rows Rows without progress id
+     *
+     * @return Generated progress ids, in the order of the rows
+     *
+     * @throws Exception If nothing was inserted
+     */
+    long[] insert(List<ProgressRow> rows) throws Exception;
+
+    /**
+     * Update existing progress rows in a single request
+     *
+     * @param rows Rows with their progress id
+     *
+     * @throws Exception If nothing was updated
+     */
+    void update(List<ProgressRow> rows) throws Exception;
+
+    class ProgressRow
+    {
+        private final UUID player;
+        private final int achievementId;
+        private final int ordinal;
+        private final long progressId;
+        private final int progress;
+        private final long startTime;
+        private final long unlockTime;
+
+        ProgressRow(UUID player, int achievementId, int ordinal, long progressId, int progress, long startTime, long unlockTime)
+        {
+            this.player = player;
+            this.achievementId = achievementId;
+            this.ordinal = ordinal;
+            this.progressId = progressId;
+            this.progress = progress;
+            this.startTime = startTime;
+            this.unlockTime = unlockTime;
+        }
+
+        public UUID getPlayer()
+        {
+            return this.player;
+        }
+
+        public int getAchievementId()
+        {
+            return this.achievementId;
+        }
+
+        int getOrdinal()
+        {
+            return this.ordinal;
+        }
+
+        public long getProgressId()
+        {
+            return this.progressId;
+        }
+
+        public int getProgress()
+        {
+            return this.progress;
+        }
+
+        public Timestamp getStartTime()
+        {
+            return this.startTime == 0L ? null : new Timestamp(this.startTime);
+        }
+
+        public Timestamp getUnlockTime()
+        {
+            return this.unlockTime == 0L ? null : new Timestamp(this.unlockTime);
+        }
+    }
+}
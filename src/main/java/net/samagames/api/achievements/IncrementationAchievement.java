@@ -1,7 +1,5 @@
 package net.samagames.api.achievements;
 
-import java.sql.Timestamp;
-import java.time.Instant;
 import java.util.UUID;
 
 /*
@@ -47,24 +45,8 @@ public class IncrementationAchievement extends Achievement
      */
     public void increment(UUID player, int amount)
     {
-        AchievementProgress progress = this.progress.get(player);
-
-        if (progress == null)
-        {
-            progress = new AchievementProgress(-1, 0, Timestamp.from(Instant.now()), null, true);
-            this.progress.put(player, progress);
-        }
-
-        if (progress.getProgress() + amount > this.objective && progress.getUnlockTime() == null)
-        {
-            progress.unlock();
-            progress.setProgress(this.objective);
+        if (AchievementProgressStore.get().increment(player, this.ordinal, amount, this.objective))
             this.sendRewardMessage(player);
-        }
-        else if (progress.getUnlockTime() == null)
-        {
-            progress.setProgress(progress.getProgress() + amount);
-        }
     }
 
     /**
@@ -76,8 +58,7 @@ public class IncrementationAchievement extends Achievement
      */
     public int getActualState(UUID player)
     {
-        AchievementProgress progress = this.progress.get(player);
-        return progress == null ? 0 : progress.getProgress();
+        return AchievementProgressStore.get().getProgress(player, this.ordinal);
     }
 
     /**
@@ -0,0 +1,299 @@
+package net.samagames.api.games;
+
+import net.samagames.api.SamaGamesAPI;
+import net.samagames.api.player.AbstractPlayerData;
+import net.samagames.api.player.IFinancialCallback;
+import net.samagames.tools.journal.DeltaJournal;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class CoinsAccumulator
+{
+    private final Map<UUID, PlayerCredits> credits;
+    private final AtomicLong flushedCredits;
+    private final AtomicLong accumulatedCredits;
+    private final AtomicLong failedCredits;
+    private BukkitTask flushTask;
+    private volatile DeltaJournal journal;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor
+     */
+    public CoinsAccumulator()
+    {
+        this.credits = new ConcurrentHashMap<>();
+        this.flushedCredits = new AtomicLong();
+        this.accumulatedCredits = new AtomicLong();
+        this.failedCredits = new AtomicLong();
+    }
+
+    /**
+     * Flush the pending credits periodically
+     *
+     * @param plugin Plugin owning the flush task
+     * @param period Time in ticks between two flushes
+     */
+    public synchronized void start(Plugin plugin, long period)
+    {
+        this.stopped = false;
+
+        if (this.flushTask == null)
+            this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, period, period);
+    }
+
+    /**
+     * Stop the periodic flushes and flush the
+     * pending credits, the next credits are sent
+     * right away
+     */
+    public synchronized void stop()
+    {
+        this.stopped = true;
+
+        if (this.flushTask != null)
+        {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+
+        this.flush();
+    }
+
+    /**
+     * Set the journal recording the pending credits, so they
+     * can be replayed after a crash
+     *
+     * @param journal Journal, or {@code null} to disable it
+     */
+    public void setJournal(DeltaJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Add coins to a given player, they are credited
+     * on the next flush, or right away if stopped
+     *
+     * @param player Player's UUID
+     * @param amount Amount of coins, before multiplier
+     * @param reason Displayed reason of the credit
+     * @param callback Callback fired with the combined result of
+     *                 the flush, once per flush even if given with
+     *                 several credits
+     */
+    public void add(UUID player, long amount, String reason, IFinancialCallback callback)
+    {
+        if (amount <= 0)
+            return;
+
+        PlayerCredits playerCredits = this.credits.computeIfAbsent(player, key -> new PlayerCredits());
+
+        if (callback != null)
+            playerCredits.callbacks.add(callback);
+
+        playerCredits.pendingReasons.add(reason);
+        playerCredits.pending.addAndGet(amount);
+        playerCredits.lastReason = reason;
+
+        DeltaJournal journal = this.journal;
+
+        if (journal == null)
+        {
+            playerCredits.unconfirmed.addAndGet(amount);
+        }
+        else
+        {
+            // A rewrite of the journal can't see the amount without its record
+            synchronized (journal)
+            {
+                playerCredits.unconfirmed.addAndGet(amount);
+                journal.append(DeltaJournal.COINS, player, reason, amount);
+            }
+        }
+
+        this.accumulatedCredits.incrementAndGet();
+
+        // No flush is coming anymore, like the coins given at the end of the game
+        if (this.stopped)
+            this.flush();
+    }
+
+    /**
+     * Credit every pending amount, with a single
+     * call per player
+     */
+    public synchronized void flush()
+    {
+        this.credits.forEach((player, playerCredits) ->
+        {
+            long amount = playerCredits.pending.getAndSet(0L);
+
+            if (amount == 0)
+                return;
+
+            List<IFinancialCallback> callbacks = new ArrayList<>(playerCredits.callbacks);
+            playerCredits.callbacks.removeAll(callbacks);
+
+            List<String> reasons = new ArrayList<>(playerCredits.pendingReasons);
+            playerCredits.pendingReasons.removeAll(reasons);
+
+            try
+            {
+                AbstractPlayerData playerData = SamaGamesAPI.get().getPlayerManager().getPlayerData(player);
+
+                // The multiplier is applied once on the whole amount
+                String reason = String.join(", ", reasons);
+
+                playerData.creditCoins(amount, reason, true, (newAmount, difference, error) ->
+                {
+                    // Called first, the players' totals count the amount until it is confirmed
+                    for (IFinancialCallback callback : callbacks)
+                        callback.done(newAmount, difference, error);
+
+                    // Credited, the next rewrite of the journal drops it
+                    if (error == null)
+                        playerCredits.unconfirmed.addAndGet(-amount);
+                    else
+                        this.failedCredits.incrementAndGet();
+                });
+
+                this.flushedCredits.incrementAndGet();
+            }
+            catch (Exception e)
+            {
+                // Kept for the next flush
+                playerCredits.pending.addAndGet(amount);
+                playerCredits.callbacks.addAll(callbacks);
+                playerCredits.pendingReasons.addAll(reasons);
+
+                Bukkit.getLogger().log(Level.SEVERE, "Failed to credit " + amount + " coins to " + player, e);
+            }
+        });
+    }
+
+    /**
+     * Append the coins not confirmed by the backend yet to a
+     * given journal, which is rewritten without the credited ones
+     *
+     * @param journal Journal
+     */
+    public void journalUnconfirmed(DeltaJournal journal)
+    {
+        this.credits.forEach((player, playerCredits) ->
+        {
+            long amount = playerCredits.unconfirmed.get();
+
+            if (amount > 0)
+                journal.append(DeltaJournal.COINS, player, playerCredits.lastReason, amount);
+        });
+    }
+
+    /**
+     * Get the coins of a given player waiting for
+     * the next flush, before multiplier
+     *
+     * @param player Player's UUID
+     *
+     * @return Pending amount
+     */
+    public long getPendingCoins(UUID player)
+    {
+        PlayerCredits playerCredits = this.credits.get(player);
+        return playerCredits == null ? 0L : playerCredits.pending.get();
+    }
+
+    /**
+     * Get the coins of a given player not confirmed by
+     * the backend yet, before multiplier
+     *
+     * @param player Player's UUID
+     *
+     * @return Unconfirmed amount
+     */
+    public long getUnconfirmedCoins(UUID player)
+    {
+        PlayerCredits playerCredits = this.credits.get(player);
+        return playerCredits == null ? 0L : playerCredits.unconfirmed.get();
+    }
+
+    /**
+     * Get if every accumulated credit was confirmed by the
+     * backend, nothing would be credited by a journal replay
+     *
+     * @return {@code true} if nothing is pending, running or failed
+     */
+    public boolean isSettled()
+    {
+        for (PlayerCredits playerCredits : this.credits.values())
+            if (playerCredits.unconfirmed.get() != 0)
+                return false;
+
+        return true;
+    }
+
+    /**
+     * Get the number of credits refused by the backend
+     *
+     * @return Credits count
+     */
+    public long getFailedCredits()
+    {
+        return this.failedCredits.get();
+    }
+
+    /**
+     * Get the number of accumulated credits
+     *
+     * @return Credits count
+     */
+    public long getAccumulatedCredits()
+    {
+        return this.accumulatedCredits.get();
+    }
+
+    /**
+     * Get the number of credits sent to the backend
+     *
+     * @return Credits count
+     */
+    public long getFlushedCredits()
+    {
+        return this.flushedCredits.get();
+    }
+
+    private static class PlayerCredits
+    {
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong unconfirmed = new AtomicLong();
+        private final Set<IFinancialCallback> callbacks = ConcurrentHashMap.newKeySet();
+        private final Set<String> pendingReasons = ConcurrentHashMap.newKeySet();
+        private volatile String lastReason;
+    }
+}
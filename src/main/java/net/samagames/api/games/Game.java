@@ -2,10 +2,13 @@ package net.samagames.api.games;
 
 import in.ashwanthkumar.slack.webhook.SlackMessage;
 import net.samagames.api.SamaGamesAPI;
+import net.samagames.api.achievements.AchievementTriggers;
 import net.samagames.api.games.pearls.Pearl;
 import net.samagames.api.games.themachine.ICoherenceMachine;
 import net.samagames.api.games.themachine.messages.templates.EarningMessageTemplate;
+import net.samagames.api.player.AbstractPlayerData;
 import net.samagames.tools.Titles;
+import net.samagames.tools.journal.DeltaJournal;
 import org.apache.commons.lang3.tuple.Pair;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -13,8 +16,9 @@ import org.bukkit.GameMode;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitTask;
-import redis.clients.jedis.Jedis;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -50,6 +54,11 @@ public class Game<GAMEPLAYER extends GamePlayer>
     protected final HashMap<UUID, GAMEPLAYER> gamePlayers;
     protected final HashMap<UUID, GAMEPLAYER> gameSpectators;
     protected final AdvertisingTask advertisingTask;
+    protected final CoinsAccumulator coinsAccumulator;
+    protected StatisticsDeltaBuffer statisticsBuffer;
+    protected DeltaJournal journal;
+    protected BukkitTask journalTask;
+    protected AchievementTriggers achievementTriggers;
     protected BukkitTask beginTimer;
     protected BeginTimer beginObj;
 
@@ -57,6 +66,9 @@ public class Game<GAMEPLAYER extends GamePlayer>
     protected Status status;
     protected long startTime = -1;
 
+    private final List<DeltaJournal.Record> keptRecords;
+    private final List<DeltaJournal.Record> replayedStatistics;
+
     /**
      * @param gameCodeName The code name of the game, given by an administrator.
      * @param gameName The friendly name of the game.
@@ -81,6 +93,9 @@ public class Game<GAMEPLAYER extends GamePlayer>
         this.gamePlayers = new HashMap<>();
         this.gameSpectators = new HashMap<>();
         this.advertisingTask = new AdvertisingTask();
+        this.coinsAccumulator = new CoinsAccumulator();
+        this.keptRecords = new ArrayList<>();
+        this.replayedStatistics = new ArrayList<>();
 
         this.status = Status.WAITING_FOR_PLAYERS;
     }
@@ -125,9 +140,14 @@ public class Game<GAMEPLAYER extends GamePlayer>
             gamePlayer.getPlayerIfOnline().setExp(0.0F);
         });
 
-        if (this.gameManager.getGameStatisticsHelper() != null)
+        if (this.getStatisticsBuffer() != null)
+        {
             for (UUID uuid : this.gamePlayers.keySet())
-                this.gameManager.getGameStatisticsHelper().increasePlayedGames(uuid);
+                this.statisticsBuffer.increasePlayedGames(uuid);
+
+            // Given right away while every player is online, the failed ones are retried at the end
+            this.statisticsBuffer.flush();
+        }
 
         this.coherenceMachine.getMessageManager().writeGameStart();
 
@@ -148,6 +168,11 @@ public class Game<GAMEPLAYER extends GamePlayer>
 
         if (this.gameManager.getGameStatisticsHelper() == null)
             Bukkit.getLogger().severe("NO STATISTICS HELPER REGISTERED, PLAYERS WILL LOST THEIR STATISTICS DURING THIS GAME.");
+
+        this.openJournal();
+        this.coinsAccumulator.start(SamaGamesAPI.get().getPlugin(), 20L * 10);
+
+        SamaGamesAPI.get().getPlayerManager().prefetchPlayerData(SamaGamesAPI.get().getJoinManager().getExpectedPlayers());
     }
 
     /**
@@ -215,14 +240,7 @@ public class Game<GAMEPLAYER extends GamePlayer>
     {
         String key = "lastgame:" + player.getPlayer().toString();
 
-        Jedis jedis = SamaGamesAPI.get().getBungeeResource();
-
-        if (jedis != null)
-        {
-            jedis.set(key, this.gameCodeName);
-            jedis.expire(key, 60 * 3);
-            jedis.close();
-        }
+        SamaGamesAPI.get().getRedisWriteBehind().setex(key, 60 * 3, this.gameCodeName);
 
         if (this.status == Status.FINISHED)
             return;
@@ -322,11 +340,10 @@ public class Game<GAMEPLAYER extends GamePlayer>
         {
             this.gameWinners.add(uuid);
 
-            if (this.gameManager.getGameStatisticsHelper() != null)
-                this.gameManager.getGameStatisticsHelper().increaseWins(uuid);
+            if (this.getStatisticsBuffer() != null)
+                this.statisticsBuffer.increaseWins(uuid);
 
-            SamaGamesAPI.get().getAchievementManager().getAchievementByID(25).unlock(uuid);
-            Arrays.asList(26, 27, 28, 29).forEach(id -> SamaGamesAPI.get().getAchievementManager().incrementAchievement(uuid, id, 1));
+            this.getAchievementTriggers().fire(uuid, AchievementTriggers.Event.WIN, 1);
         }
         catch (Exception e)
         {
@@ -351,82 +368,68 @@ public class Game<GAMEPLAYER extends GamePlayer>
         // Network hook don't touch
         this.gameManager.stopTimer();
         this.getInGamePlayers().values().forEach(GamePlayer::stepPlayedTimeCounter);
+        this.coinsAccumulator.stop();
 
         for (GamePlayer player : this.getRegisteredGamePlayers().values())
         {
             try
             {
-                if (this.gameManager.getGameStatisticsHelper() != null)
-                    this.gameManager.getGameStatisticsHelper().increasePlayedTime(player.getUUID(), player.getPlayedTime());
+                if (this.getStatisticsBuffer() != null)
+                    this.statisticsBuffer.increasePlayedTime(player.getUUID(), player.getPlayedTime());
             }
             catch (Exception ignored) {}
         }
 
-        boolean wasAStaffMember = false;
-        boolean wasAGameCreator = false;
-        boolean wasACoupaingInGame = false;
-        boolean wasASamAllieInGame = false;
-        boolean wasAnHidden = false;
+        Set<AchievementTriggers.Event> events = EnumSet.noneOf(AchievementTriggers.Event.class);
+
+        Map<UUID, AbstractPlayerData> playersData = SamaGamesAPI.get().getPlayerManager().getPlayerData(this.gamePlayers.keySet());
 
         for (GamePlayer player : this.gamePlayers.values())
         {
             if (SamaGamesAPI.get().getPermissionsManager().hasPermission(player.getUUID(), "network.staff"))
             {
-                wasAStaffMember = true;
+                events.add(AchievementTriggers.Event.PLAYED_WITH_STAFF);
 
                 if (this.gameCreators != null && this.gameCreators.contains(player.getUUID()))
-                    wasAGameCreator = true;
-            }
-            else if (SamaGamesAPI.get().getPermissionsManager().getPlayer(player.getUUID()).getGroupId() == 4)
-            {
-                wasACoupaingInGame = true;
-
-                if (SamaGamesAPI.get().getPlayerManager().getPlayerData(player.getUUID()).hasNickname())
-                    wasAnHidden = true;
-            }
-            else if (SamaGamesAPI.get().getPermissionsManager().getPlayer(player.getUUID()).getGroupId() == 5)
-            {
-                wasASamAllieInGame = true;
+                    events.add(AchievementTriggers.Event.PLAYED_WITH_GAME_CREATOR);
 
-                if (SamaGamesAPI.get().getPlayerManager().getPlayerData(player.getUUID()).hasNickname())
-                    wasAnHidden = true;
+                continue;
             }
-        }
 
-        for (GamePlayer player : this.gamePlayers.values())
-        {
-            if (player.isOnline())
-            {
-                boolean finalWasAStaffMember = wasAStaffMember;
-                boolean finalWasAGameCreator = wasAGameCreator;
-                boolean finalWasACoupaingInGame = wasACoupaingInGame;
-                boolean finalWasASamAllieInGame = wasASamAllieInGame;
-                boolean finalWasAnHidden = wasAnHidden;
+            int groupId = SamaGamesAPI.get().getPermissionsManager().getPlayer(player.getUUID()).getGroupId();
 
-                Bukkit.getScheduler().runTask(SamaGamesAPI.get().getPlugin(), () ->
-                {
-                   if (finalWasAStaffMember)
-                       SamaGamesAPI.get().getAchievementManager().getAchievementByID(15).unlock(player.getUUID());
+            if (groupId == 4)
+                events.add(AchievementTriggers.Event.PLAYED_WITH_COUPAING);
+            else if (groupId == 5)
+                events.add(AchievementTriggers.Event.PLAYED_WITH_SAMALLIE);
+            else
+                continue;
 
-                    if (finalWasAGameCreator)
-                        SamaGamesAPI.get().getAchievementManager().getAchievementByID(16).unlock(player.getUUID());
+            if (playersData.containsKey(player.getUUID()) && playersData.get(player.getUUID()).hasNickname())
+                events.add(AchievementTriggers.Event.PLAYED_WITH_HIDDEN);
+        }
 
-                    if (finalWasACoupaingInGame)
-                        SamaGamesAPI.get().getAchievementManager().getAchievementByID(13).unlock(player.getUUID());
+        Bukkit.getScheduler().runTask(SamaGamesAPI.get().getPlugin(), () ->
+        {
+            // Credits the coins given after this method, the earned coins are read below
+            this.coinsAccumulator.flush();
 
-                    if (finalWasASamAllieInGame)
-                        SamaGamesAPI.get().getAchievementManager().getAchievementByID(14).unlock(player.getUUID());
+            AchievementTriggers triggers = this.getAchievementTriggers();
 
-                    if (finalWasAnHidden)
-                        SamaGamesAPI.get().getAchievementManager().getAchievementByID(17).unlock(player.getUUID());
+            for (GamePlayer player : this.gamePlayers.values())
+            {
+                if (!player.isOnline())
+                    continue;
 
-                    Arrays.asList(30, 31, 32, 33, 34).forEach(id -> SamaGamesAPI.get().getAchievementManager().incrementAchievement(player.getUUID(), id, player.getCoins()));
-                });
+                triggers.fire(player.getUUID(), events, 1);
+                triggers.fire(player.getUUID(), AchievementTriggers.Event.COINS_EARNED, player.getCoins());
             }
-        }
+        });
 
         Bukkit.getScheduler().runTaskLater(SamaGamesAPI.get().getPlugin(), () ->
         {
+            this.coinsAccumulator.flush();
+
             this.gamePlayers.keySet().stream().filter(playerUUID -> Bukkit.getPlayer(playerUUID) != null).forEach(playerUUID ->
             {
                 Pearl pearl = this.gameManager.getPearlManager().runGiveAlgorythm(Bukkit.getPlayer(playerUUID), (int) TimeUnit.MILLISECONDS.toSeconds(this.gameManager.getGameTime()), this.gameWinners.contains(playerUUID));
@@ -438,13 +441,74 @@ public class Game<GAMEPLAYER extends GamePlayer>
 
         Bukkit.getScheduler().runTaskLater(SamaGamesAPI.get().getPlugin(), () ->
         {
+            // Given to the statistics helper while the players are still online
+            if (this.statisticsBuffer != null)
+                this.statisticsBuffer.flush();
+
             for (Player player : Bukkit.getOnlinePlayers())
                 this.gameManager.kickPlayer(player, null);
         }, 20L * 10);
 
         Bukkit.getScheduler().runTaskLater(SamaGamesAPI.get().getPlugin(), () ->
         {
-            SamaGamesAPI.get().getStatsManager().finish();
+            boolean statisticsSaved = false;
+            boolean finished = false;
+
+            try
+            {
+                // Only retries the players which failed, the others were already given
+                statisticsSaved = this.statisticsBuffer == null || this.statisticsBuffer.flush();
+            }
+            finally
+            {
+                // The statistics of every other player are saved anyway
+                try
+                {
+                    SamaGamesAPI.get().getStatsManager().finish();
+                    finished = true;
+                }
+                catch (Exception e)
+                {
+                    SamaGamesAPI.get().getPlugin().getLogger().log(Level.SEVERE, "Failed to save the statistics of the game", e);
+                    statisticsSaved = false;
+                }
+            }
+
+            if (!statisticsSaved)
+                SamaGamesAPI.get().getPlugin().getLogger().severe("Failed to save the statistics of some players, they are kept in the delta journal.");
+
+            if (this.journal != null)
+            {
+                this.journalTask.cancel();
+
+                // Everything given before finish() is saved, the journal keeps only the rest
+                if (finished)
+                {
+                    if (this.statisticsBuffer != null)
+                        this.statisticsBuffer.markSaved();
+
+                    synchronized (this.journal)
+                    {
+                        this.replayedStatistics.clear();
+                    }
+                }
+
+                this.compactJournal();
+
+                if (!statisticsSaved || !this.coinsAccumulator.isSettled())
+                    SamaGamesAPI.get().getPlugin().getLogger().warning("Some rewards of the game were not saved, they will be replayed by the next game.");
+
+                try
+                {
+                    this.journal.close();
+                }
+                catch (IOException e)
+                {
+                    SamaGamesAPI.get().getPlugin().getLogger().log(Level.WARNING, "Failed to close the delta journal", e);
+                }
+            }
+
+            SamaGamesAPI.get().getRedisWriteBehind().drain();
             Bukkit.shutdown();
         }, 20L * 15);
     }
@@ -522,6 +586,226 @@ public class Game<GAMEPLAYER extends GamePlayer>
         return this.status;
     }
 
+    /**
+     * Returns the buffer accumulating the statistics of this game
+     * until its end, wrapping the registered statistics helper.
+     *
+     * @return The instance, or {@code null} if no statistics helper
+     *         is registered.
+     */
+    public StatisticsDeltaBuffer getStatisticsBuffer()
+    {
+        IGameStatisticsHelper helper = this.gameManager.getGameStatisticsHelper();
+
+        if (helper == null)
+            return null;
+
+        if (this.statisticsBuffer == null || this.statisticsBuffer.getDelegate() != helper)
+        {
+            if (this.statisticsBuffer != null)
+                this.statisticsBuffer.flush();
+
+            this.statisticsBuffer = new StatisticsDeltaBuffer(helper);
+            this.statisticsBuffer.setJournal(this.journal);
+        }
+
+        return this.statisticsBuffer;
+    }
+
+    /**
+     * Get the table of the achievements triggered by
+     * the game events, games can add their own
+     *
+     * @return Instance
+     */
+    public AchievementTriggers getAchievementTriggers()
+    {
+        if (this.achievementTriggers == null)
+            this.achievementTriggers = AchievementTriggers.defaults();
+
+        return this.achievementTriggers;
+    }
+
+    /**
+     * Open the journal of the pending coins and statistics, and
+     * give back the ones left by a server which stopped before
+     * saving them. The ones of another game are kept for its
+     * next start.
+     */
+    private void openJournal()
+    {
+        File file = new File(SamaGamesAPI.get().getPlugin().getDataFolder(), "delta-journal.dat");
+        file.getParentFile().mkdirs();
+
+        try
+        {
+            this.journal = new DeltaJournal(file, this.gameCodeName);
+        }
+        catch (IOException e)
+        {
+            SamaGamesAPI.get().getPlugin().getLogger().log(Level.SEVERE, "Failed to open the delta journal, pending rewards won't survive a crash", e);
+            return;
+        }
+
+        Map<UUID, Long> coins = new HashMap<>();
+        Map<UUID, String> coinsReasons = new HashMap<>();
+        Map<UUID, long[]> statistics = new LinkedHashMap<>();
+
+        int records = this.journal.replay(record ->
+        {
+            if (!this.gameCodeName.equals(record.getGame()))
+            {
+                this.keptRecords.add(record);
+            }
+            else if (record.getType() == DeltaJournal.COINS)
+            {
+                coins.merge(record.getPlayer(), record.getValue(), Long::sum);
+
+                if (record.getValue() > 0)
+                    coinsReasons.put(record.getPlayer(), record.getKey());
+            }
+            else if (record.getType() >= DeltaJournal.PLAYED_GAMES && record.getType() <= DeltaJournal.PLAYED_TIME)
+            {
+                statistics.computeIfAbsent(record.getPlayer(), key -> new long[3])[record.getType() - DeltaJournal.PLAYED_GAMES] += record.getValue();
+            }
+        });
+
+        if (!this.keptRecords.isEmpty())
+            SamaGamesAPI.get().getPlugin().getLogger().info("Keeping " + this.keptRecords.size() + " pending reward(s) of other games for their next start");
+
+        if (records > this.keptRecords.size())
+            SamaGamesAPI.get().getPlugin().getLogger().info("Replaying " + (records - this.keptRecords.size()) + " pending reward(s) of the previous game");
+
+        // Not journaled yet, the rewrite below gives them a single record
+        coins.forEach((player, amount) ->
+        {
+            if (amount > 0)
+                this.coinsAccumulator.add(player, amount, coinsReasons.get(player), null);
+        });
+
+        if (!statistics.isEmpty())
+            this.replayStatistics(statistics);
+
+        this.compactJournal();
+        this.coinsAccumulator.setJournal(this.journal);
+
+        if (this.statisticsBuffer != null)
+            this.statisticsBuffer.setJournal(this.journal);
+
+        this.journalTask = Bukkit.getScheduler().runTaskTimerAsynchronously(SamaGamesAPI.get().getPlugin(), this::compactJournal, 20L * 60, 20L * 60);
+    }
+
+    /**
+     * Give back the journaled statistics of this game through the
+     * stats manager, as their players may be offline. They are kept
+     * in the journal until saved by {@link net.samagames.api.stats.IStatsManager#finish()}.
+     *
+     * @param statistics Played games, wins and played time by player
+     */
+    private void replayStatistics(Map<UUID, long[]> statistics)
+    {
+        UUID[] players = new UUID[statistics.size()];
+        int[] playedGames = new int[players.length];
+        int[] wins = new int[players.length];
+        long[] playedTime = new long[players.length];
+        int i = 0;
+
+        for (Map.Entry<UUID, long[]> entry : statistics.entrySet())
+        {
+            players[i] = entry.getKey();
+            playedGames[i] = (int) entry.getValue()[0];
+            wins[i] = (int) entry.getValue()[1];
+            playedTime[i] = entry.getValue()[2];
+            i++;
+        }
+
+        boolean applied;
+
+        try
+        {
+            applied = SamaGamesAPI.get().getStatsManager().increaseStatistics(this.gameCodeName, players, playedGames, wins, playedTime, players.length);
+        }
+        catch (Exception e)
+        {
+            SamaGamesAPI.get().getPlugin().getLogger().log(Level.SEVERE, "Failed to give back the statistics of the previous game", e);
+            applied = false;
+        }
+
+        if (!applied)
+            SamaGamesAPI.get().getPlugin().getLogger().warning("Some statistics of the previous game were not given back, they are kept for the next start.");
+
+        for (i = 0; i < players.length; i++)
+        {
+            long[] given = statistics.get(players[i]);
+
+            // Applied entries are set back to 0, they wait for finish() while the others wait for the next start
+            this.keepStatistics(this.replayedStatistics, players[i], given[0] - playedGames[i], given[1] - wins[i], given[2] - playedTime[i]);
+            this.keepStatistics(this.keptRecords, players[i], playedGames[i], wins[i], playedTime[i]);
+        }
+    }
+
+    private void keepStatistics(List<DeltaJournal.Record> records, UUID player, long playedGames, long wins, long playedTime)
+    {
+        if (playedGames != 0)
+            records.add(new DeltaJournal.Record(DeltaJournal.PLAYED_GAMES, player, this.gameCodeName, null, playedGames));
+
+        if (wins != 0)
+            records.add(new DeltaJournal.Record(DeltaJournal.WINS, player, this.gameCodeName, null, wins));
+
+        if (playedTime != 0)
+            records.add(new DeltaJournal.Record(DeltaJournal.PLAYED_TIME, player, this.gameCodeName, null, playedTime));
+    }
+
+    /**
+     * Rewrite the journal with only the rewards not saved yet: the
+     * coins not confirmed by the backend, the statistics not saved
+     * by the stats manager, and the records kept for a next start.
+     * Called periodically so the journal doesn't grow during the game.
+     */
+    private void compactJournal()
+    {
+        StatisticsDeltaBuffer statisticsBuffer = this.statisticsBuffer;
+
+        if (statisticsBuffer == null)
+        {
+            this.rewriteJournal(null);
+            return;
+        }
+
+        // The buffer appends to the journal while holding its own lock
+        synchronized (statisticsBuffer)
+        {
+            this.rewriteJournal(statisticsBuffer);
+        }
+    }
+
+    private void rewriteJournal(StatisticsDeltaBuffer statisticsBuffer)
+    {
+        // The coins are appended while holding the journal's lock, none can be missed
+        synchronized (this.journal)
+        {
+            this.journal.clear();
+
+            this.keptRecords.forEach(this.journal::append);
+            this.replayedStatistics.forEach(this.journal::append);
+            this.coinsAccumulator.journalUnconfirmed(this.journal);
+
+            if (statisticsBuffer != null)
+                statisticsBuffer.journalUnsaved(this.journal);
+        }
+    }
+
+    /**
+     * Returns the accumulator batching the coins credited
+     * to the players during this game.
+     *
+     * @return The instance.
+     */
+    public CoinsAccumulator getCoinsAccumulator()
+    {
+        return this.coinsAccumulator;
+    }
+
     /**
      * Returns the CoherenceMachine instance
      *
@@ -2,6 +2,7 @@ package net.samagames.api.games;
 
 import net.samagames.api.SamaGamesAPI;
 import net.samagames.api.player.AbstractPlayerData;
+import net.samagames.api.player.IFinancialCallback;
 import net.samagames.tools.chat.fanciful.FancyMessage;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -31,12 +32,14 @@ public class GamePlayer
 {
     protected final UUID uuid;
 
-    protected int coins;
+    protected volatile int coins;
     protected boolean spectator;
 
     protected long startTime;
     protected long playedTime;
 
+    private final IFinancialCallback coinsCallback;
+
     public GamePlayer(Player player)
     {
         this.uuid = player.getUniqueId();
@@ -46,6 +49,14 @@ public class GamePlayer
 
         this.startTime = -1;
         this.playedTime = 0;
+
+        this.coinsCallback = (newAmount, difference, error) ->
+        {
+            synchronized (this)
+            {
+                this.coins += difference;
+            }
+        };
     }
 
     /**
@@ -72,14 +83,21 @@ public class GamePlayer
     }
 
     /**
-     * Credits coins to this player.
+     * Credits coins to this player. The credits are accumulated
+     * and sent periodically, the multiplier being applied once
+     * on their sum.
      *
      * @param coins_ The amount of coins to credit.
      * @param reason The displayed reason of the credit.
      */
     public void addCoins(int coins_, String reason)
     {
-        SamaGamesAPI.get().getPlayerManager().getPlayerData(this.uuid).creditCoins(coins_, reason, true, (newAmount, difference, error) -> coins += difference);
+        Game<?> game = SamaGamesAPI.get().getGameManager().getGame();
+
+        if (game != null)
+            game.getCoinsAccumulator().add(this.uuid, coins_, reason, this.coinsCallback);
+        else
+            SamaGamesAPI.get().getPlayerManager().getPlayerData(this.uuid).creditCoins(coins_, reason, true, this.coinsCallback);
     }
 
     /**
@@ -181,7 +199,8 @@ public class GamePlayer
     }
 
     /**
-     * Returns the coins this player earned <b>during this game</b>.
+     * Returns the coins this player earned <b>during this game</b>,
+     * the ones not credited yet being counted before multiplier.
      *
      * To get the whole amount of coins this player have, use {@link AbstractPlayerData#getCoins()}.
      *
@@ -189,7 +208,12 @@ public class GamePlayer
      */
     public int getCoins()
     {
-        return this.coins;
+        Game<?> game = SamaGamesAPI.get().getGameManager().getGame();
+
+        if (game == null)
+            return this.coins;
+
+        return this.coins + (int) game.getCoinsAccumulator().getUnconfirmedCoins(this.uuid);
     }
 
     /**
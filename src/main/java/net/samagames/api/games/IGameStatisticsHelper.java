@@ -1,6 +1,9 @@
 package net.samagames.api.games;
 
+import org.bukkit.Bukkit;
+
 import java.util.UUID;
+import java.util.logging.Level;
 
 /*
  * This file is part of SamaGamesAPI.
@@ -23,4 +26,49 @@ public interface IGameStatisticsHelper
     void increasePlayedTime(UUID uuid, long playedTime);
     void increasePlayedGames(UUID uuid);
     void increaseWins(UUID uuid);
+
+    /**
+     * Apply the statistics accumulated for several players,
+     * override it to write them in a single batch. Every applied
+     * entry is set back to 0 in the arrays, the others are
+     * given again to the next call.
+     *
+     * @param players Players' UUID
+     * @param playedGames Played games to add, by player
+     * @param wins Wins to add, by player
+     * @param playedTime Played time to add, by player
+     * @param count Number of players to read from the arrays
+     *
+     * @return {@code true} if every entry was applied
+     */
+    default boolean increaseStatistics(UUID[] players, int[] playedGames, int[] wins, long[] playedTime, int count)
+    {
+        boolean applied = true;
+
+        for (int i = 0; i < count; i++)
+        {
+            // A failing player, like one whose statistics are unloaded, doesn't stop the others
+            try
+            {
+                for (; playedGames[i] > 0; playedGames[i]--)
+                    this.increasePlayedGames(players[i]);
+
+                for (; wins[i] > 0; wins[i]--)
+                    this.increaseWins(players[i]);
+
+                if (playedTime[i] != 0)
+                {
+                    this.increasePlayedTime(players[i], playedTime[i]);
+                    playedTime[i] = 0;
+                }
+            }
+            catch (Exception e)
+            {
+                Bukkit.getLogger().log(Level.WARNING, "Failed to increase the statistics of " + players[i], e);
+                applied = false;
+            }
+        }
+
+        return applied;
+    }
 }
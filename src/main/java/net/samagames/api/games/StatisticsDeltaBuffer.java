@@ -0,0 +1,352 @@
+package net.samagames.api.games;
+
+import net.samagames.tools.journal.DeltaJournal;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class StatisticsDeltaBuffer implements IGameStatisticsHelper
+{
+    private final IGameStatisticsHelper delegate;
+    private final Map<UUID, Integer> slots;
+
+    private UUID[] players;
+    private int[] playedGames;
+    private int[] wins;
+    private long[] playedTime;
+    private int[] unsavedPlayedGames;
+    private int[] unsavedWins;
+    private long[] unsavedPlayedTime;
+    private boolean dirty;
+
+    private BukkitTask flushTask;
+    private DeltaJournal journal;
+    private long flushes;
+
+    /**
+     * Constructor
+     *
+     * @param delegate Helper receiving the accumulated statistics
+     * @param expectedPlayers Number of players to allocate slots
+     *                        for, more are allocated when needed
+     */
+    public StatisticsDeltaBuffer(IGameStatisticsHelper delegate, int expectedPlayers)
+    {
+        int capacity = Math.max(8, expectedPlayers);
+
+        this.delegate = delegate;
+        this.slots = new HashMap<>(capacity * 2);
+        this.players = new UUID[capacity];
+        this.playedGames = new int[capacity];
+        this.wins = new int[capacity];
+        this.playedTime = new long[capacity];
+        this.unsavedPlayedGames = new int[capacity];
+        this.unsavedWins = new int[capacity];
+        this.unsavedPlayedTime = new long[capacity];
+    }
+
+    /**
+     * Constructor
+     *
+     * @param delegate Helper receiving the accumulated statistics
+     */
+    public StatisticsDeltaBuffer(IGameStatisticsHelper delegate)
+    {
+        this(delegate, 32);
+    }
+
+    @Override
+    public synchronized void increasePlayedTime(UUID uuid, long playedTime)
+    {
+        int slot = this.slot(uuid);
+
+        this.playedTime[slot] += playedTime;
+        this.unsavedPlayedTime[slot] += playedTime;
+        this.dirty = true;
+
+        if (this.journal != null)
+            this.journal.append(DeltaJournal.PLAYED_TIME, uuid, null, playedTime);
+    }
+
+    @Override
+    public synchronized void increasePlayedGames(UUID uuid)
+    {
+        int slot = this.slot(uuid);
+
+        this.playedGames[slot]++;
+        this.unsavedPlayedGames[slot]++;
+        this.dirty = true;
+
+        if (this.journal != null)
+            this.journal.append(DeltaJournal.PLAYED_GAMES, uuid, null, 1L);
+    }
+
+    @Override
+    public synchronized void increaseWins(UUID uuid)
+    {
+        int slot = this.slot(uuid);
+
+        this.wins[slot]++;
+        this.unsavedWins[slot]++;
+        this.dirty = true;
+
+        if (this.journal != null)
+            this.journal.append(DeltaJournal.WINS, uuid, null, 1L);
+    }
+
+    @Override
+    public synchronized boolean increaseStatistics(UUID[] players, int[] playedGames, int[] wins, long[] playedTime, int count)
+    {
+        this.accumulate(players, playedGames, wins, playedTime, count);
+
+        for (int i = 0; i < count; i++)
+        {
+            int slot = this.slot(players[i]);
+
+            this.unsavedPlayedGames[slot] += playedGames[i];
+            this.unsavedWins[slot] += wins[i];
+            this.unsavedPlayedTime[slot] += playedTime[i];
+        }
+
+        if (this.journal != null)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                if (playedGames[i] != 0)
+                    this.journal.append(DeltaJournal.PLAYED_GAMES, players[i], null, playedGames[i]);
+
+                if (wins[i] != 0)
+                    this.journal.append(DeltaJournal.WINS, players[i], null, wins[i]);
+
+                if (playedTime[i] != 0)
+                    this.journal.append(DeltaJournal.PLAYED_TIME, players[i], null, playedTime[i]);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Set the journal recording the accumulated statistics, so
+     * they can be replayed if the server stops before they are
+     * persisted by {@link net.samagames.api.stats.IStatsManager#finish()}
+     *
+     * @param journal Journal, or {@code null} to disable it
+     */
+    public synchronized void setJournal(DeltaJournal journal)
+    {
+        this.journal = journal;
+    }
+
+    /**
+     * Flush the accumulated statistics periodically
+     *
+     * @param plugin Plugin owning the flush task
+     * @param period Time in ticks between two flushes
+     */
+    public synchronized void start(Plugin plugin, long period)
+    {
+        if (this.flushTask == null)
+            this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, period, period);
+    }
+
+    /**
+     * Stop the periodic flushes
+     */
+    public synchronized void stop()
+    {
+        if (this.flushTask != null)
+        {
+            this.flushTask.cancel();
+            this.flushTask = null;
+        }
+    }
+
+    /**
+     * Give every accumulated statistic to the delegate
+     * in a single call
+     *
+     * @return {@code true} if every statistic was given, {@code false}
+     *         if the delegate failed for some of them, which are kept
+     *         for the next flush
+     */
+    public boolean flush()
+    {
+        UUID[] players;
+        int[] playedGames;
+        int[] wins;
+        long[] playedTime;
+        int count;
+
+        synchronized (this)
+        {
+            if (!this.dirty)
+                return true;
+
+            count = this.slots.size();
+            players = Arrays.copyOf(this.players, count);
+            playedGames = Arrays.copyOf(this.playedGames, count);
+            wins = Arrays.copyOf(this.wins, count);
+            playedTime = Arrays.copyOf(this.playedTime, count);
+
+            // Slots are kept, the players stay the same during a game
+            Arrays.fill(this.playedGames, 0, count, 0);
+            Arrays.fill(this.wins, 0, count, 0);
+            Arrays.fill(this.playedTime, 0, count, 0L);
+            this.dirty = false;
+            this.flushes++;
+        }
+
+        boolean applied;
+
+        try
+        {
+            applied = this.delegate.increaseStatistics(players, playedGames, wins, playedTime, count);
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to flush the statistics of " + count + " player(s)", e);
+            applied = false;
+        }
+
+        if (applied)
+            return true;
+
+        // Already journaled, only the entries not set back to 0 are given to the next flush
+        synchronized (this)
+        {
+            this.accumulate(players, playedGames, wins, playedTime, count);
+        }
+
+        return false;
+    }
+
+    /**
+     * Forget the statistics saved by {@link net.samagames.api.stats.IStatsManager#finish()},
+     * only the ones not given to the delegate yet are kept
+     */
+    public synchronized void markSaved()
+    {
+        int count = this.slots.size();
+
+        System.arraycopy(this.playedGames, 0, this.unsavedPlayedGames, 0, count);
+        System.arraycopy(this.wins, 0, this.unsavedWins, 0, count);
+        System.arraycopy(this.playedTime, 0, this.unsavedPlayedTime, 0, count);
+    }
+
+    /**
+     * Append the statistics not saved yet to a given journal,
+     * which is rewritten without the saved ones
+     *
+     * @param journal Journal
+     */
+    public synchronized void journalUnsaved(DeltaJournal journal)
+    {
+        for (int i = 0; i < this.slots.size(); i++)
+        {
+            if (this.unsavedPlayedGames[i] != 0)
+                journal.append(DeltaJournal.PLAYED_GAMES, this.players[i], null, this.unsavedPlayedGames[i]);
+
+            if (this.unsavedWins[i] != 0)
+                journal.append(DeltaJournal.WINS, this.players[i], null, this.unsavedWins[i]);
+
+            if (this.unsavedPlayedTime[i] != 0)
+                journal.append(DeltaJournal.PLAYED_TIME, this.players[i], null, this.unsavedPlayedTime[i]);
+        }
+    }
+
+    /**
+     * Get the helper receiving the accumulated statistics
+     *
+     * @return Instance
+     */
+    public IGameStatisticsHelper getDelegate()
+    {
+        return this.delegate;
+    }
+
+    /**
+     * Get the number of players having a slot
+     *
+     * @return Players count
+     */
+    public synchronized int getPlayers()
+    {
+        return this.slots.size();
+    }
+
+    /**
+     * Get the number of flushes with pending statistics
+     *
+     * @return Flushes count
+     */
+    public synchronized long getFlushes()
+    {
+        return this.flushes;
+    }
+
+    private void accumulate(UUID[] players, int[] playedGames, int[] wins, long[] playedTime, int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            int slot = this.slot(players[i]);
+
+            this.playedGames[slot] += playedGames[i];
+            this.wins[slot] += wins[i];
+            this.playedTime[slot] += playedTime[i];
+
+            if (playedGames[i] != 0 || wins[i] != 0 || playedTime[i] != 0L)
+                this.dirty = true;
+        }
+    }
+
+    private int slot(UUID uuid)
+    {
+        Integer slot = this.slots.get(uuid);
+
+        if (slot != null)
+            return slot;
+
+        int newSlot = this.slots.size();
+
+        if (newSlot == this.players.length)
+        {
+            int capacity = this.players.length * 2;
+
+            this.players = Arrays.copyOf(this.players, capacity);
+            this.playedGames = Arrays.copyOf(this.playedGames, capacity);
+            this.wins = Arrays.copyOf(this.wins, capacity);
+            this.playedTime = Arrays.copyOf(this.playedTime, capacity);
+            this.unsavedPlayedGames = Arrays.copyOf(this.unsavedPlayedGames, capacity);
+            this.unsavedWins = Arrays.copyOf(this.unsavedWins, capacity);
+            this.unsavedPlayedTime = Arrays.copyOf(this.unsavedPlayedTime, capacity);
+        }
+
+        this.players[newSlot] = uuid;
+        this.slots.put(uuid, newSlot);
+
+        return newSlot;
+    }
+}
@@ -1,7 +1,10 @@
 package net.samagames.api.player;
 
+import net.samagames.api.SamaGamesAPI;
+
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * This file is part of SamaGamesAPI.
@@ -135,6 +138,42 @@ public abstract class AbstractPlayerData
         this.withdrawCoins(amount, null);
     }
 
+    /**
+     * Credit the coins number of the player without
+     * blocking the caller
+     *
+     * @param amount Amount to credit
+     * @param reason Credit's reason
+     * @param applyMultiplier Have to apply multiplier
+     *
+     * @return Future result, completed exceptionally if the
+     *         operation failed
+     */
+    public CompletableFuture<FinancialResult> creditCoinsAsync(long amount, String reason, boolean applyMultiplier)
+    {
+        CompletableFuture<FinancialResult> future = new CompletableFuture<>();
+        this.creditCoins(amount, reason, applyMultiplier, completing(future));
+
+        return future;
+    }
+
+    /**
+     * Withdraw the coins number of the player without
+     * blocking the caller
+     *
+     * @param amount Amount to withdraw
+     *
+     * @return Future result, completed exceptionally if the
+     *         operation failed
+     */
+    public CompletableFuture<FinancialResult> withdrawCoinsAsync(long amount)
+    {
+        CompletableFuture<FinancialResult> future = new CompletableFuture<>();
+        this.withdrawCoins(amount, completing(future));
+
+        return future;
+    }
+
     /**
      * Get current coins number of the player
      * 
@@ -143,7 +182,21 @@ public abstract class AbstractPlayerData
     public abstract long getCoins();
 
     /**
-     * Is the player has current coins
+     * Withdraw a given amount of coins if the player has
+     * enough of them, in a single atomic operation
+     *
+     * @param amount Amount to withdraw
+     *
+     * @return Result with the new balance
+     */
+    public WithdrawResult tryWithdrawCoins(long amount)
+    {
+        return this.tryWithdraw(CurrencyType.COINS, amount);
+    }
+
+    /**
+     * Is the player has current coins, prefer
+     * {@link #tryWithdrawCoins(long)} before a purchase
      * 
      * @param amount Coins number to check
      *
@@ -299,6 +352,53 @@ public abstract class AbstractPlayerData
      */
     public abstract long decreasePowders(long decrBy);
 
+    /**
+     * Credit the powders number of the player without
+     * blocking the caller
+     *
+     * @param amount Amount to credit
+     *
+     * @return Future result, completed exceptionally if the
+     *         operation failed
+     */
+    public CompletableFuture<FinancialResult> creditPowdersAsync(long amount)
+    {
+        CompletableFuture<FinancialResult> future = new CompletableFuture<>();
+        this.creditPowders(amount, completing(future));
+
+        return future;
+    }
+
+    /**
+     * Withdraw the powders number of the player without
+     * blocking the caller
+     *
+     * @param amount Amount to withdraw
+     *
+     * @return Future result, completed exceptionally if the
+     *         operation failed
+     */
+    public CompletableFuture<FinancialResult> withdrawPowdersAsync(long amount)
+    {
+        CompletableFuture<FinancialResult> future = new CompletableFuture<>();
+        this.withdrawPowders(amount, completing(future));
+
+        return future;
+    }
+
+    /**
+     * Withdraw a given amount of powders if the player has
+     * enough of them, in a single atomic operation
+     *
+     * @param amount Amount to withdraw
+     *
+     * @return Result with the new balance
+     */
+    public WithdrawResult tryWithdrawPowders(long amount)
+    {
+        return this.tryWithdraw(CurrencyType.POWDERS, amount);
+    }
+
     /**
      * Get current powders number of the player
      *
@@ -319,6 +419,34 @@ public abstract class AbstractPlayerData
         return this.getStars() >= amount;
     }
 
+    /**
+     * Withdraw a given amount of a currency if the player
+     * has enough of it, the check and the withdraw being
+     * done as one operation by the backend
+     *
+     * @param currency Currency
+     * @param amount Amount to withdraw
+     *
+     * @return Result with the new balance
+     */
+    public WithdrawResult tryWithdraw(CurrencyType currency, long amount)
+    {
+        WithdrawResult result = SamaGamesAPI.get().getPlayerManager().getCurrencyBackend().tryWithdraw(this.getPlayerID(), currency, amount);
+        this.updateBalance(currency, result.getBalance());
+
+        return result;
+    }
+
+    /**
+     * Update the cached balance of a currency after an operation
+     * done on the currency backend, to be overridden by the
+     * implementations caching the balances
+     *
+     * @param currency Currency
+     * @param balance Balance returned by the backend
+     */
+    protected void updateBalance(CurrencyType currency, long balance) {}
+
     /**
      * Handle the displayname according to nickname or real name
      * @return
@@ -331,4 +459,15 @@ public abstract class AbstractPlayerData
      */
     public abstract boolean hasNickname();
 
+    private static IFinancialCallback completing(CompletableFuture<FinancialResult> future)
+    {
+        return (newAmount, difference, error) ->
+        {
+            if (error != null)
+                future.completeExceptionally(error);
+            else
+                future.complete(new FinancialResult(newAmount, difference));
+        };
+    }
+
 }
\ No newline at end of file
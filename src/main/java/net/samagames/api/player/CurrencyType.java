@@ -0,0 +1,45 @@
+package net.samagames.api.player;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public enum CurrencyType
+{
+    COINS("coins"),
+    POWDERS("powders");
+
+    private final String field;
+
+    /**
+     * Constructor
+     *
+     * @param field Name of the field storing the balance
+     */
+    CurrencyType(String field)
+    {
+        this.field = field;
+    }
+
+    /**
+     * Get the name of the field storing the balance
+     *
+     * @return Field
+     */
+    public String getField()
+    {
+        return this.field;
+    }
+}
@@ -0,0 +1,57 @@
+package net.samagames.api.player;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class FinancialResult
+{
+    private final long newAmount;
+    private final long difference;
+
+    /**
+     * Constructor
+     *
+     * @param newAmount New amount of money
+     * @param difference Difference of money between before and
+     *                   after the operation
+     */
+    public FinancialResult(long newAmount, long difference)
+    {
+        this.newAmount = newAmount;
+        this.difference = difference;
+    }
+
+    /**
+     * Get the amount of money after the operation
+     *
+     * @return New amount
+     */
+    public long getNewAmount()
+    {
+        return this.newAmount;
+    }
+
+    /**
+     * Get the difference of money between before and
+     * after the operation
+     *
+     * @return Difference
+     */
+    public long getDifference()
+    {
+        return this.difference;
+    }
+}
@@ -0,0 +1,55 @@
+package net.samagames.api.player;
+
+import java.util.UUID;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public interface ICurrencyBackend
+{
+    /**
+     * Withdraw a given amount if the balance is high enough,
+     * the check and the withdraw being a single atomic operation
+     *
+     * @param player Player's UUID
+     * @param currency Currency
+     * @param amount Amount to withdraw
+     *
+     * @return Result
+     */
+    WithdrawResult tryWithdraw(UUID player, CurrencyType currency, long amount);
+
+    /**
+     * Credit a given amount
+     *
+     * @param player Player's UUID
+     * @param currency Currency
+     * @param amount Amount to credit
+     *
+     * @return The new balance
+     */
+    long credit(UUID player, CurrencyType currency, long amount);
+
+    /**
+     * Get the current balance
+     *
+     * @param player Player's UUID
+     * @param currency Currency
+     *
+     * @return Balance
+     */
+    long getBalance(UUID player, CurrencyType currency);
+}
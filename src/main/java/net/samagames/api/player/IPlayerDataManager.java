@@ -2,6 +2,9 @@ package net.samagames.api.player;
 
 import net.md_5.bungee.api.chat.TextComponent;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /*
@@ -42,6 +45,50 @@ public interface IPlayerDataManager
      */
     AbstractPlayerData getPlayerData(UUID player, boolean forceRefresh);
 
+    /**
+     * Get the data of several players, implementations
+     * should fetch the missing ones in a single round-trip
+     *
+     * @param players Players' UUID
+     *
+     * @return Map of the found data
+     */
+    default Map<UUID, AbstractPlayerData> getPlayerData(Collection<UUID> players)
+    {
+        Map<UUID, AbstractPlayerData> result = new HashMap<>(players.size() * 2);
+
+        for (UUID player : players)
+        {
+            AbstractPlayerData data = this.getPlayerData(player);
+
+            if (data != null)
+                result.put(player, data);
+        }
+
+        return result;
+    }
+
+    /**
+     * Hint that the data of the given players will be
+     * needed soon, so it can be loaded in the background
+     *
+     * @param players Players' UUID
+     */
+    default void prefetchPlayerData(Collection<UUID> players) {}
+
+    /**
+     * Get the backend storing the balances, used by the
+     * atomic withdrawals of {@link AbstractPlayerData}. The
+     * default keeps them in memory, implementations storing
+     * the player data in Redis give a {@link RedisCurrencyBackend}
+     *
+     * @return Instance
+     */
+    default ICurrencyBackend getCurrencyBackend()
+    {
+        return LocalCurrencyBackend.getDefault();
+    }
+
 	/**
 	 * Kick the player from the network (need to add sanction manually)
 	 *
@@ -0,0 +1,109 @@
+package net.samagames.api.player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LocalCurrencyBackend implements ICurrencyBackend
+{
+    private static final LocalCurrencyBackend DEFAULT = new LocalCurrencyBackend();
+
+    private final Map<UUID, AtomicLong[]> balances;
+
+    /**
+     * Constructor of an in-memory backend, to be used
+     * for local runs and tests
+     */
+    public LocalCurrencyBackend()
+    {
+        this.balances = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the backend shared by the player data managers
+     * not giving their own one
+     *
+     * @return Instance
+     */
+    public static LocalCurrencyBackend getDefault()
+    {
+        return DEFAULT;
+    }
+
+    @Override
+    public WithdrawResult tryWithdraw(UUID player, CurrencyType currency, long amount)
+    {
+        if (amount < 0)
+            throw new IllegalArgumentException("Amount must be positive");
+
+        AtomicLong balance = this.balance(player, currency);
+
+        while (true)
+        {
+            long current = balance.get();
+
+            if (current < amount)
+                return new WithdrawResult(false, current);
+
+            if (balance.compareAndSet(current, current - amount))
+                return new WithdrawResult(true, current - amount);
+        }
+    }
+
+    @Override
+    public long credit(UUID player, CurrencyType currency, long amount)
+    {
+        if (amount < 0)
+            throw new IllegalArgumentException("Amount must be positive");
+
+        return this.balance(player, currency).addAndGet(amount);
+    }
+
+    @Override
+    public long getBalance(UUID player, CurrencyType currency)
+    {
+        return this.balance(player, currency).get();
+    }
+
+    /**
+     * Set the balance of a given player
+     *
+     * @param player Player's UUID
+     * @param currency Currency
+     * @param amount New balance
+     */
+    public void setBalance(UUID player, CurrencyType currency, long amount)
+    {
+        this.balance(player, currency).set(amount);
+    }
+
+    private AtomicLong balance(UUID player, CurrencyType currency)
+    {
+        return this.balances.computeIfAbsent(player, key ->
+        {
+            AtomicLong[] playerBalances = new AtomicLong[CurrencyType.values().length];
+
+            for (int i = 0; i < playerBalances.length; i++)
+                playerBalances[i] = new AtomicLong();
+
+            return playerBalances;
+        })[currency.ordinal()];
+    }
+}
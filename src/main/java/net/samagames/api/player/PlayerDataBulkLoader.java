@@ -0,0 +1,191 @@
+package net.samagames.api.player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PlayerDataBulkLoader
+{
+    private final Function<Collection<UUID>, Map<UUID, AbstractPlayerData>> batchLoader;
+    private final Executor executor;
+    private final Map<UUID, CompletableFuture<AbstractPlayerData>> inFlight;
+
+    private final AtomicLong batches;
+    private final AtomicLong loadedPlayers;
+    private final AtomicLong sharedLoads;
+
+    /**
+     * Constructor
+     *
+     * @param batchLoader Function loading the data of several players
+     *                    in a single backend round-trip, missing
+     *                    players are left out of the returned map
+     * @param executor Executor running the batch loads
+     */
+    public PlayerDataBulkLoader(Function<Collection<UUID>, Map<UUID, AbstractPlayerData>> batchLoader, Executor executor)
+    {
+        this.batchLoader = batchLoader;
+        this.executor = executor;
+        this.inFlight = new ConcurrentHashMap<>();
+
+        this.batches = new AtomicLong();
+        this.loadedPlayers = new AtomicLong();
+        this.sharedLoads = new AtomicLong();
+    }
+
+    /**
+     * Load the data of the given players, players already
+     * being loaded by another call join its load instead of
+     * being fetched twice
+     *
+     * @param players Players' UUID
+     *
+     * @return Future map of the found data
+     */
+    public CompletableFuture<Map<UUID, AbstractPlayerData>> load(Collection<UUID> players)
+    {
+        Map<UUID, CompletableFuture<AbstractPlayerData>> futures = new HashMap<>(players.size() * 2);
+        Map<UUID, CompletableFuture<AbstractPlayerData>> owned = new HashMap<>(players.size() * 2);
+
+        for (UUID player : players)
+        {
+            if (futures.containsKey(player))
+                continue;
+
+            CompletableFuture<AbstractPlayerData> future = new CompletableFuture<>();
+            CompletableFuture<AbstractPlayerData> existing = this.inFlight.putIfAbsent(player, future);
+
+            if (existing != null)
+            {
+                this.sharedLoads.incrementAndGet();
+                futures.put(player, existing);
+            }
+            else
+            {
+                owned.put(player, future);
+                futures.put(player, future);
+            }
+        }
+
+        if (!owned.isEmpty())
+            this.executor.execute(() -> this.loadBatch(owned));
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[futures.size()])).handle((ignored, throwable) ->
+        {
+            Map<UUID, AbstractPlayerData> result = new HashMap<>(futures.size() * 2);
+
+            futures.forEach((player, future) ->
+            {
+                if (future.isCompletedExceptionally())
+                    return;
+
+                AbstractPlayerData data = future.getNow(null);
+
+                if (data != null)
+                    result.put(player, data);
+            });
+
+            return result;
+        });
+    }
+
+    /**
+     * Load the data of the given players and wait for it
+     *
+     * @param players Players' UUID
+     *
+     * @return Map of the found data
+     */
+    public Map<UUID, AbstractPlayerData> get(Collection<UUID> players)
+    {
+        return this.load(players).join();
+    }
+
+    private void loadBatch(Map<UUID, CompletableFuture<AbstractPlayerData>> owned)
+    {
+        List<UUID> players = new ArrayList<>(owned.keySet());
+
+        try
+        {
+            Map<UUID, AbstractPlayerData> loaded = this.batchLoader.apply(players);
+
+            this.batches.incrementAndGet();
+            this.loadedPlayers.addAndGet(loaded.size());
+
+            owned.forEach((player, future) -> future.complete(loaded.get(player)));
+        }
+        catch (Exception e)
+        {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+        }
+        finally
+        {
+            owned.forEach(this.inFlight::remove);
+        }
+    }
+
+    /**
+     * Get the number of players being loaded
+     *
+     * @return In-flight loads count
+     */
+    public int getInFlightLoads()
+    {
+        return this.inFlight.size();
+    }
+
+    /**
+     * Get the number of backend round-trips
+     *
+     * @return Batches count
+     */
+    public long getBatches()
+    {
+        return this.batches.get();
+    }
+
+    /**
+     * Get the number of loaded players
+     *
+     * @return Loaded players count
+     */
+    public long getLoadedPlayers()
+    {
+        return this.loadedPlayers.get();
+    }
+
+    /**
+     * Get the number of players which joined a load
+     * started by another call
+     *
+     * @return Shared loads count
+     */
+    public long getSharedLoads()
+    {
+        return this.sharedLoads.get();
+    }
+}
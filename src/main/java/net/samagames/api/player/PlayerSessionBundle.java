@@ -0,0 +1,127 @@
+package net.samagames.api.player;
+
+import net.samagames.api.permissions.IPermissionsEntity;
+import net.samagames.api.settings.IPlayerSettings;
+import net.samagames.api.shops.IPlayerShop;
+import net.samagames.api.stats.IPlayerStats;
+
+import java.util.UUID;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PlayerSessionBundle
+{
+    private final UUID player;
+    private final AbstractPlayerData playerData;
+    private final IPermissionsEntity permissions;
+    private final IPlayerSettings settings;
+    private final IPlayerStats stats;
+    private final IPlayerShop shop;
+    private final long loadTime;
+
+    /**
+     * Constructor
+     *
+     * @param player Player's UUID
+     * @param playerData Player's data
+     * @param permissions Player's permissions
+     * @param settings Player's settings
+     * @param stats Player's statistics
+     * @param shop Player's shop
+     * @param loadTime Time in milliseconds spent to load the bundle
+     */
+    public PlayerSessionBundle(UUID player, AbstractPlayerData playerData, IPermissionsEntity permissions, IPlayerSettings settings, IPlayerStats stats, IPlayerShop shop, long loadTime)
+    {
+        this.player = player;
+        this.playerData = playerData;
+        this.permissions = permissions;
+        this.settings = settings;
+        this.stats = stats;
+        this.shop = shop;
+        this.loadTime = loadTime;
+    }
+
+    /**
+     * Get the player's UUID
+     *
+     * @return UUID
+     */
+    public UUID getPlayer()
+    {
+        return this.player;
+    }
+
+    /**
+     * Get the player's data
+     *
+     * @return Instance, {@code null} if its load failed
+     */
+    public AbstractPlayerData getPlayerData()
+    {
+        return this.playerData;
+    }
+
+    /**
+     * Get the player's permissions
+     *
+     * @return Instance, {@code null} if its load failed
+     */
+    public IPermissionsEntity getPermissions()
+    {
+        return this.permissions;
+    }
+
+    /**
+     * Get the player's settings
+     *
+     * @return Instance, {@code null} if its load failed
+     */
+    public IPlayerSettings getSettings()
+    {
+        return this.settings;
+    }
+
+    /**
+     * Get the player's statistics
+     *
+     * @return Instance, {@code null} if its load failed
+     */
+    public IPlayerStats getStats()
+    {
+        return this.stats;
+    }
+
+    /**
+     * Get the player's shop
+     *
+     * @return Instance, {@code null} if its load failed
+     */
+    public IPlayerShop getShop()
+    {
+        return this.shop;
+    }
+
+    /**
+     * Get the time spent to load the bundle
+     *
+     * @return Time in milliseconds
+     */
+    public long getLoadTime()
+    {
+        return this.loadTime;
+    }
+}
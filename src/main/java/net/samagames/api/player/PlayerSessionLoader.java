@@ -0,0 +1,207 @@
+package net.samagames.api.player;
+
+import net.samagames.api.SamaGamesAPI;
+import net.samagames.api.permissions.IPermissionsEntity;
+import net.samagames.api.settings.IPlayerSettings;
+import net.samagames.api.shops.IPlayerShop;
+import net.samagames.api.stats.IPlayerStats;
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PlayerSessionLoader implements Listener
+{
+    private final Executor executor;
+    private final Map<UUID, CompletableFuture<PlayerSessionBundle>> sessions;
+
+    private final AtomicLong loadedBundles;
+    private final AtomicLong totalLoadTime;
+    private final AtomicLong bundleHits;
+
+    /**
+     * Constructor
+     *
+     * @param plugin Plugin listening to the logins
+     * @param executor Executor running the loads
+     */
+    public PlayerSessionLoader(JavaPlugin plugin, Executor executor)
+    {
+        this.executor = executor;
+        this.sessions = new ConcurrentHashMap<>();
+
+        this.loadedBundles = new AtomicLong();
+        this.totalLoadTime = new AtomicLong();
+        this.bundleHits = new AtomicLong();
+
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Constructor loading on the asynchronous
+     * scheduler of a given plugin
+     *
+     * @param plugin Plugin listening to the logins
+     */
+    public PlayerSessionLoader(JavaPlugin plugin)
+    {
+        this(plugin, runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event)
+    {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED)
+            this.load(event.getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event)
+    {
+        // Refused players never quit, their bundle would be kept forever
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED)
+            this.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event)
+    {
+        this.invalidate(event.getPlayer().getUniqueId());
+    }
+
+    /**
+     * Start loading the bundle of a given player, every
+     * part being loaded in parallel
+     *
+     * @param player Player's UUID
+     *
+     * @return Future bundle
+     */
+    public CompletableFuture<PlayerSessionBundle> load(UUID player)
+    {
+        return this.sessions.computeIfAbsent(player, this::startLoad);
+    }
+
+    /**
+     * Get the bundle of a given player if its load
+     * is finished, its parts are the instances given
+     * by the managers at login
+     *
+     * @param player Player's UUID
+     *
+     * @return Bundle, or {@code null} if not loaded
+     */
+    public PlayerSessionBundle getIfLoaded(UUID player)
+    {
+        CompletableFuture<PlayerSessionBundle> future = this.sessions.get(player);
+
+        if (future == null || !future.isDone() || future.isCompletedExceptionally())
+            return null;
+
+        this.bundleHits.incrementAndGet();
+        return future.getNow(null);
+    }
+
+    /**
+     * Forget the bundle of a given player
+     *
+     * @param player Player's UUID
+     */
+    public void invalidate(UUID player)
+    {
+        this.sessions.remove(player);
+    }
+
+    private CompletableFuture<PlayerSessionBundle> startLoad(UUID player)
+    {
+        long start = System.currentTimeMillis();
+        SamaGamesAPI api = SamaGamesAPI.get();
+
+        CompletableFuture<AbstractPlayerData> playerData = this.part(player, "player data", () -> api.getPlayerManager().getPlayerData(player));
+        CompletableFuture<IPermissionsEntity> permissions = this.part(player, "permissions", () -> api.getPermissionsManager().getPlayer(player));
+        CompletableFuture<IPlayerSettings> settings = this.part(player, "settings", () -> api.getSettingsManager().getSettings(player));
+        CompletableFuture<IPlayerStats> stats = this.part(player, "statistics", () -> api.getStatsManager().getPlayerStats(player));
+        CompletableFuture<IPlayerShop> shop = this.part(player, "shop", () -> api.getShopsManager().getPlayer(player));
+
+        return CompletableFuture.allOf(playerData, permissions, settings, stats, shop).thenApply(ignored ->
+        {
+            long loadTime = System.currentTimeMillis() - start;
+
+            this.loadedBundles.incrementAndGet();
+            this.totalLoadTime.addAndGet(loadTime);
+
+            return new PlayerSessionBundle(player, playerData.join(), permissions.join(), settings.join(), stats.join(), shop.join(), loadTime);
+        });
+    }
+
+    private <T> CompletableFuture<T> part(UUID player, String name, Supplier<T> loader)
+    {
+        return CompletableFuture.supplyAsync(loader, this.executor).exceptionally(throwable ->
+        {
+            // A missing part is loaded lazily by its manager instead
+            Bukkit.getLogger().log(Level.WARNING, "Failed to load the " + name + " of " + player, throwable);
+            return null;
+        });
+    }
+
+    /**
+     * Get the number of loaded bundles
+     *
+     * @return Bundles count
+     */
+    public long getLoadedBundles()
+    {
+        return this.loadedBundles.get();
+    }
+
+    /**
+     * Get the average time spent to load a bundle
+     *
+     * @return Time in milliseconds
+     */
+    public long getAverageLoadTime()
+    {
+        long bundles = this.loadedBundles.get();
+        return bundles == 0 ? 0L : this.totalLoadTime.get() / bundles;
+    }
+
+    /**
+     * Get the number of lookups served by a loaded
+     * bundle
+     *
+     * @return Hits count
+     */
+    public long getBundleHits()
+    {
+        return this.bundleHits.get();
+    }
+}
@@ -0,0 +1,129 @@
+package net.samagames.api.player;
+
+import net.samagames.api.redis.RedisLease;
+import net.samagames.api.redis.RedisLeaseManager;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class RedisCurrencyBackend implements ICurrencyBackend
+{
+    // Redis runs a script without interleaving other commands, so the
+    // check and the decrement cannot be split by a concurrent purchase
+    private static final String WITHDRAW_SCRIPT =
+            "local balance = tonumber(redis.call('HGET', KEYS[1], ARGV[1]) or '0') " +
+            "local amount = tonumber(ARGV[2]) " +
+            "if balance < amount then return {0, balance} end " +
+            "return {1, redis.call('HINCRBY', KEYS[1], ARGV[1], -amount)}";
+
+    // Hash caching the player data, its fields are the ones read by getCoins()
+    private static final String PLAYER_DATA_KEY = "playerdata:";
+
+    private final RedisLeaseManager leaseManager;
+    private volatile String withdrawScriptHash;
+
+    /**
+     * Constructor, the balances are the fields of
+     * the player data's hash
+     *
+     * @param leaseManager Lease manager providing the connections
+     */
+    public RedisCurrencyBackend(RedisLeaseManager leaseManager)
+    {
+        this.leaseManager = leaseManager;
+    }
+
+    @Override
+    public WithdrawResult tryWithdraw(UUID player, CurrencyType currency, long amount)
+    {
+        if (amount < 0)
+            throw new IllegalArgumentException("Amount must be positive");
+
+        List<String> keys = Collections.singletonList(this.key(player));
+        List<String> args = Arrays.asList(currency.getField(), String.valueOf(amount));
+
+        try (RedisLease lease = this.lease())
+        {
+            Jedis jedis = lease.getResource();
+            Object reply;
+
+            try
+            {
+                reply = jedis.evalsha(this.getWithdrawScriptHash(jedis), keys, args);
+            }
+            catch (JedisNoScriptException e)
+            {
+                // Script cache flushed, EVAL loads it again
+                reply = jedis.eval(WITHDRAW_SCRIPT, keys, args);
+            }
+
+            List<?> values = (List<?>) reply;
+            return new WithdrawResult(((Long) values.get(0)) == 1L, (Long) values.get(1));
+        }
+    }
+
+    @Override
+    public long credit(UUID player, CurrencyType currency, long amount)
+    {
+        if (amount < 0)
+            throw new IllegalArgumentException("Amount must be positive");
+
+        try (RedisLease lease = this.lease())
+        {
+            return lease.getResource().hincrBy(this.key(player), currency.getField(), amount);
+        }
+    }
+
+    @Override
+    public long getBalance(UUID player, CurrencyType currency)
+    {
+        try (RedisLease lease = this.lease())
+        {
+            String value = lease.getResource().hget(this.key(player), currency.getField());
+            return value == null ? 0L : Long.parseLong(value);
+        }
+    }
+
+    private String key(UUID player)
+    {
+        return PLAYER_DATA_KEY + player;
+    }
+
+    private String getWithdrawScriptHash(Jedis jedis)
+    {
+        if (this.withdrawScriptHash == null)
+            this.withdrawScriptHash = jedis.scriptLoad(WITHDRAW_SCRIPT);
+
+        return this.withdrawScriptHash;
+    }
+
+    private RedisLease lease()
+    {
+        RedisLease lease = this.leaseManager.lease();
+
+        if (lease == null)
+            throw new IllegalStateException("No Redis connection available");
+
+        return lease;
+    }
+}
@@ -0,0 +1,57 @@
+package net.samagames.api.player;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class WithdrawResult
+{
+    private final boolean success;
+    private final long balance;
+
+    /**
+     * Constructor
+     *
+     * @param success {@code true} if the amount was withdrawn
+     * @param balance Balance after the operation, or the current
+     *                one if nothing was withdrawn
+     */
+    public WithdrawResult(boolean success, long balance)
+    {
+        this.success = success;
+        this.balance = balance;
+    }
+
+    /**
+     * Is the amount withdrawn
+     *
+     * @return {@code true} if withdrawn
+     */
+    public boolean isSuccess()
+    {
+        return this.success;
+    }
+
+    /**
+     * Get the balance after the operation, or the
+     * current one if nothing was withdrawn
+     *
+     * @return Balance
+     */
+    public long getBalance()
+    {
+        return this.balance;
+    }
+}
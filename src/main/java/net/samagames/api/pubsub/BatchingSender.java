@@ -0,0 +1,498 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class BatchingSender implements ISender
+{
+    private static final PendingMessage WAKE_UP = new PendingMessage("", "");
+
+    private final Supplier<Jedis> resourceSupplier;
+    private final BlockingQueue<PendingMessage> queue;
+    private final int maxBatchSize;
+    private final long flushWindow;
+    private final Thread flushThread;
+    private final Map<String, Function<String, String>> conflatingChannels;
+    private final Map<String, ConflatedMessage> conflatedMessages;
+
+    private final AtomicLong flushedBatches;
+    private final AtomicLong flushedMessages;
+    private final AtomicLong totalFlushLatency;
+    private final AtomicLong supersededMessages;
+    private final AtomicLong rejectedMessages;
+    private final AtomicLong failedMessages;
+    private volatile int lastBatchSize;
+    private volatile long lastFlushLatency;
+    private volatile boolean running;
+    private volatile PubSubStatistics statistics;
+
+    /**
+     * Constructor
+     *
+     * @param resourceSupplier Redis connection provider, every borrowed
+     *                         connection is closed after its flush
+     * @param capacity Maximum number of queued messages, the messages
+     *                 published when the queue is full are rejected
+     * @param maxBatchSize Number of messages after which a batch is
+     *                     flushed without waiting for the flush window
+     * @param flushWindow Maximum time in milliseconds a message waits
+     *                    in the queue
+     */
+    public BatchingSender(Supplier<Jedis> resourceSupplier, int capacity, int maxBatchSize, long flushWindow)
+    {
+        if (capacity <= 0 || maxBatchSize <= 0 || flushWindow <= 0)
+            throw new IllegalArgumentException("Capacity, batch size and flush window must be positive");
+
+        this.resourceSupplier = resourceSupplier;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushWindow = flushWindow;
+        this.conflatingChannels = new ConcurrentHashMap<>();
+        this.conflatedMessages = new ConcurrentHashMap<>();
+
+        this.flushedBatches = new AtomicLong();
+        this.flushedMessages = new AtomicLong();
+        this.totalFlushLatency = new AtomicLong();
+        this.supersededMessages = new AtomicLong();
+        this.rejectedMessages = new AtomicLong();
+        this.failedMessages = new AtomicLong();
+        this.running = true;
+
+        this.flushThread = new Thread(this::run, "PubSub batching sender");
+        this.flushThread.setDaemon(true);
+        this.flushThread.start();
+    }
+
+    /**
+     * Constructor with a queue of 4096 messages flushed
+     * every 5 milliseconds or every 256 messages
+     *
+     * @param resourceSupplier Redis connection provider
+     */
+    public BatchingSender(Supplier<Jedis> resourceSupplier)
+    {
+        this(resourceSupplier, 4096, 256, 5L);
+    }
+
+    /**
+     * Queue a given message, its callback is fired once
+     * the batch containing it is acknowledged by Redis. It
+     * is never written on the calling thread: its failure
+     * callback is fired if the queue is full or the sender
+     * is shut down
+     *
+     * @param message Message
+     */
+    @Override
+    public void publish(PendingMessage message)
+    {
+        if (!this.running)
+        {
+            this.reject(message, "PubSub sender is shut down");
+            return;
+        }
+
+        Function<String, String> keyExtractor = this.conflatingChannels.get(message.getChannel());
+
+        if (keyExtractor != null)
+        {
+            String key = message.getChannel() + '\u0000' + keyExtractor.apply(message.getMessage());
+            boolean[] added = new boolean[1];
+
+            this.conflatedMessages.compute(key, (k, pending) ->
+            {
+                if (pending == null)
+                {
+                    added[0] = true;
+                    return new ConflatedMessage(message);
+                }
+
+                pending.supersede(message);
+                this.supersededMessages.incrementAndGet();
+                return pending;
+            });
+
+            // Only the first pending value of a key has to wake the flushing thread up
+            if (added[0])
+                this.queue.offer(WAKE_UP);
+
+            // Shut down meanwhile, taken back unless the shutdown already drained it
+            if (!this.running)
+            {
+                ConflatedMessage stranded = this.conflatedMessages.remove(key);
+
+                if (stranded != null)
+                    this.reject(stranded.toPendingMessage(), "PubSub sender is shut down");
+            }
+
+            return;
+        }
+
+        // Never written on the caller, which is often the main thread
+        if (!this.queue.offer(message))
+        {
+            this.reject(message, "PubSub sender queue is full");
+            return;
+        }
+
+        if (!this.running && this.queue.remove(message))
+            this.reject(message, "PubSub sender is shut down");
+    }
+
+    /**
+     * Mark a given channel as carrying states: between two
+     * flushes only the newest message of each key is sent, the
+     * callbacks of the superseded ones run with it
+     *
+     * @param channel Channel
+     * @param keyExtractor Function giving the key of a message
+     */
+    public void setConflating(String channel, Function<String, String> keyExtractor)
+    {
+        this.conflatingChannels.put(channel, keyExtractor);
+    }
+
+    /**
+     * Mark a given channel as carrying a single state: between
+     * two flushes only its newest message is sent
+     *
+     * @param channel Channel
+     */
+    public void setConflating(String channel)
+    {
+        this.setConflating(channel, message -> "");
+    }
+
+    /**
+     * Send every message of a given channel again
+     *
+     * @param channel Channel
+     */
+    public void removeConflating(String channel)
+    {
+        this.conflatingChannels.remove(channel);
+    }
+
+    /**
+     * Set the counters updated with every flushed message
+     *
+     * @param statistics Statistics, or {@code null} to disable them
+     */
+    public void setStatistics(PubSubStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Stop the flushing thread and send every
+     * queued message
+     */
+    public void shutdown()
+    {
+        this.running = false;
+        this.flushThread.interrupt();
+
+        try
+        {
+            this.flushThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        catch (InterruptedException ignored)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingMessage> remaining = new ArrayList<>();
+        this.queue.drainTo(remaining);
+        remaining.removeIf(message -> message == WAKE_UP);
+        this.drainConflated(remaining);
+
+        if (!remaining.isEmpty())
+            this.flush(remaining);
+    }
+
+    private void run()
+    {
+        List<PendingMessage> batch = new ArrayList<>(this.maxBatchSize);
+
+        while (this.running)
+        {
+            try
+            {
+                PendingMessage first = this.queue.take();
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.flushWindow);
+
+                while (batch.size() < this.maxBatchSize)
+                {
+                    if (this.queue.drainTo(batch, this.maxBatchSize - batch.size()) > 0)
+                        continue;
+
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0)
+                        break;
+
+                    PendingMessage next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+
+                    if (next == null)
+                        break;
+
+                    batch.add(next);
+                }
+            }
+            catch (InterruptedException ignored)
+            {
+                // Shutdown requested, current batch is flushed below
+            }
+
+            batch.removeIf(message -> message == WAKE_UP);
+            this.drainConflated(batch);
+
+            if (!batch.isEmpty())
+            {
+                this.flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainConflated(List<PendingMessage> batch)
+    {
+        for (String key : this.conflatedMessages.keySet())
+        {
+            ConflatedMessage conflated = this.conflatedMessages.remove(key);
+
+            if (conflated != null)
+                batch.add(conflated.toPendingMessage());
+        }
+    }
+
+    private void flush(List<PendingMessage> batch)
+    {
+        long start = System.nanoTime();
+
+        try (Jedis jedis = this.resourceSupplier.get())
+        {
+            if (jedis == null)
+            {
+                Bukkit.getLogger().warning("No Redis connection available, dropping " + batch.size() + " PubSub message(s)");
+                this.fail(batch, new IllegalStateException("No Redis connection available"));
+                return;
+            }
+
+            Pipeline pipeline = jedis.pipelined();
+
+            for (PendingMessage message : batch)
+                pipeline.publish(message.getChannel(), message.getMessage());
+
+            pipeline.sync();
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to flush a batch of " + batch.size() + " PubSub message(s)", e);
+            this.fail(batch, e);
+            return;
+        }
+
+        long latency = System.nanoTime() - start;
+
+        this.lastBatchSize = batch.size();
+        this.lastFlushLatency = latency;
+        this.flushedBatches.incrementAndGet();
+        this.flushedMessages.addAndGet(batch.size());
+        this.totalFlushLatency.addAndGet(latency);
+
+        PubSubStatistics statistics = this.statistics;
+
+        if (statistics != null)
+            for (PendingMessage message : batch)
+                statistics.recordOut(message.getChannel(), message.getMessage());
+
+        batch.forEach(PendingMessage::runAfter);
+    }
+
+    private void fail(List<PendingMessage> batch, Throwable cause)
+    {
+        this.failedMessages.addAndGet(batch.size());
+
+        for (PendingMessage message : batch)
+            message.runAfterFailure(cause);
+    }
+
+    private void reject(PendingMessage message, String reason)
+    {
+        this.rejectedMessages.incrementAndGet();
+        message.runAfterFailure(new RejectedExecutionException(reason));
+    }
+
+    /**
+     * Get the number of messages waiting to be flushed
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth()
+    {
+        return this.queue.size();
+    }
+
+    /**
+     * Get the size of the last flushed batch
+     *
+     * @return Batch size
+     */
+    public int getLastBatchSize()
+    {
+        return this.lastBatchSize;
+    }
+
+    /**
+     * Get the average size of the flushed batches
+     *
+     * @return Average batch size
+     */
+    public double getAverageBatchSize()
+    {
+        long batches = this.flushedBatches.get();
+        return batches == 0 ? 0.0D : (double) this.flushedMessages.get() / batches;
+    }
+
+    /**
+     * Get the duration of the last flush in nanoseconds
+     *
+     * @return Flush latency
+     */
+    public long getLastFlushLatency()
+    {
+        return this.lastFlushLatency;
+    }
+
+    /**
+     * Get the average duration of a flush in nanoseconds
+     *
+     * @return Average flush latency
+     */
+    public long getAverageFlushLatency()
+    {
+        long batches = this.flushedBatches.get();
+        return batches == 0 ? 0L : this.totalFlushLatency.get() / batches;
+    }
+
+    /**
+     * Get the number of flushed batches
+     *
+     * @return Batches count
+     */
+    public long getFlushedBatches()
+    {
+        return this.flushedBatches.get();
+    }
+
+    /**
+     * Get the number of flushed messages
+     *
+     * @return Messages count
+     */
+    public long getFlushedMessages()
+    {
+        return this.flushedMessages.get();
+    }
+
+    /**
+     * Get the number of messages of conflating channels
+     * dropped because a newer one replaced them
+     *
+     * @return Superseded messages count
+     */
+    public long getSupersededMessages()
+    {
+        return this.supersededMessages.get();
+    }
+
+    /**
+     * Get the number of messages rejected because the
+     * queue was full or the sender shut down
+     *
+     * @return Rejected messages count
+     */
+    public long getRejectedMessages()
+    {
+        return this.rejectedMessages.get();
+    }
+
+    /**
+     * Get the number of messages of the failed flushes
+     *
+     * @return Failed messages count
+     */
+    public long getFailedMessages()
+    {
+        return this.failedMessages.get();
+    }
+
+    private static class ConflatedMessage
+    {
+        private final List<PendingMessage> superseded;
+        private PendingMessage latest;
+
+        ConflatedMessage(PendingMessage latest)
+        {
+            this.superseded = new ArrayList<>(0);
+            this.latest = latest;
+        }
+
+        void supersede(PendingMessage message)
+        {
+            this.superseded.add(this.latest);
+            this.latest = message;
+        }
+
+        PendingMessage toPendingMessage()
+        {
+            if (this.superseded.isEmpty())
+                return this.latest;
+
+            PendingMessage message = this.latest;
+
+            return new PendingMessage(message.getChannel(), message.getMessage(), () ->
+            {
+                this.superseded.forEach(PendingMessage::runAfter);
+                message.runAfter();
+            }, cause ->
+            {
+                this.superseded.forEach(superseded -> superseded.runAfterFailure(cause));
+                message.runAfterFailure(cause);
+            });
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package net.samagames.api.pubsub;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class ChannelStatistics
+{
+    private final String channel;
+    private final LongAdder messagesIn;
+    private final LongAdder messagesOut;
+    private final LongAdder bytesIn;
+    private final LongAdder bytesOut;
+    private final LatencyHistogram lag;
+    private final Map<String, ReceiverStatistics> receivers;
+
+    ChannelStatistics(String channel)
+    {
+        this.channel = channel;
+        this.messagesIn = new LongAdder();
+        this.messagesOut = new LongAdder();
+        this.bytesIn = new LongAdder();
+        this.bytesOut = new LongAdder();
+        this.lag = new LatencyHistogram();
+        this.receivers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Record a received message
+     *
+     * @param payload Message's content
+     */
+    public void recordIn(String payload)
+    {
+        this.messagesIn.increment();
+        this.bytesIn.add(utf8Length(payload));
+    }
+
+    /**
+     * Record a sent message
+     *
+     * @param payload Message's content
+     */
+    public void recordOut(String payload)
+    {
+        this.messagesOut.increment();
+        this.bytesOut.add(utf8Length(payload));
+    }
+
+    /**
+     * Record a received binary message
+     *
+     * @param payload Message's content
+     */
+    public void recordIn(byte[] payload)
+    {
+        this.messagesIn.increment();
+        this.bytesIn.add(payload.length);
+    }
+
+    /**
+     * Record a sent binary message
+     *
+     * @param payload Message's content
+     */
+    public void recordOut(byte[] payload)
+    {
+        this.messagesOut.increment();
+        this.bytesOut.add(payload.length);
+    }
+
+    /**
+     * Record the time a received message waited
+     * before its handler started
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void recordLag(long nanos)
+    {
+        this.lag.record(nanos);
+    }
+
+    /**
+     * Record an handler invocation
+     *
+     * @param receiver Receiver's name
+     * @param nanos Duration of the handler in nanoseconds
+     * @param failed {@code true} if the handler threw an exception
+     */
+    public void recordInvocation(String receiver, long nanos, boolean failed)
+    {
+        ReceiverStatistics statistics = this.receivers.computeIfAbsent(receiver, key -> new ReceiverStatistics());
+        statistics.latency.record(nanos);
+
+        if (failed)
+            statistics.exceptions.increment();
+    }
+
+    /**
+     * Get an immutable copy of the counters
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot()
+    {
+        Map<String, ReceiverSnapshot> receivers = new HashMap<>();
+        this.receivers.forEach((name, statistics) -> receivers.put(name, new ReceiverSnapshot(statistics)));
+
+        return new Snapshot(this, receivers);
+    }
+
+    static long utf8Length(String payload)
+    {
+        if (payload == null)
+            return 0L;
+
+        long length = payload.length();
+
+        for (int i = 0; i < payload.length(); i++)
+        {
+            char c = payload.charAt(i);
+
+            if (c >= 0x800 && !Character.isSurrogate(c))
+                length += 2;
+            else if (c >= 0x80)
+                length += 1;
+        }
+
+        return length;
+    }
+
+    private static class ReceiverStatistics
+    {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder exceptions = new LongAdder();
+    }
+
+    public static class ReceiverSnapshot
+    {
+        private final long invocations;
+        private final long exceptions;
+        private final long averageLatency;
+        private final long p99Latency;
+        private final long maxLatency;
+
+        ReceiverSnapshot(ReceiverStatistics statistics)
+        {
+            this.invocations = statistics.latency.getCount();
+            this.exceptions = statistics.exceptions.sum();
+            this.averageLatency = statistics.latency.getAverage();
+            this.p99Latency = statistics.latency.getPercentile(99.0D);
+            this.maxLatency = statistics.latency.getMax();
+        }
+
+        public long getInvocations()
+        {
+            return this.invocations;
+        }
+
+        public long getExceptions()
+        {
+            return this.exceptions;
+        }
+
+        public long getAverageLatency()
+        {
+            return this.averageLatency;
+        }
+
+        public long getP99Latency()
+        {
+            return this.p99Latency;
+        }
+
+        public long getMaxLatency()
+        {
+            return this.maxLatency;
+        }
+    }
+
+    public static class Snapshot
+    {
+        private final String channel;
+        private final long messagesIn;
+        private final long messagesOut;
+        private final long bytesIn;
+        private final long bytesOut;
+        private final long averageLag;
+        private final long p99Lag;
+        private final long maxLag;
+        private final Map<String, ReceiverSnapshot> receivers;
+
+        Snapshot(ChannelStatistics statistics, Map<String, ReceiverSnapshot> receivers)
+        {
+            this.channel = statistics.channel;
+            this.messagesIn = statistics.messagesIn.sum();
+            this.messagesOut = statistics.messagesOut.sum();
+            this.bytesIn = statistics.bytesIn.sum();
+            this.bytesOut = statistics.bytesOut.sum();
+            this.averageLag = statistics.lag.getAverage();
+            this.p99Lag = statistics.lag.getPercentile(99.0D);
+            this.maxLag = statistics.lag.getMax();
+            this.receivers = receivers;
+        }
+
+        public String getChannel()
+        {
+            return this.channel;
+        }
+
+        public long getMessagesIn()
+        {
+            return this.messagesIn;
+        }
+
+        public long getMessagesOut()
+        {
+            return this.messagesOut;
+        }
+
+        public long getBytesIn()
+        {
+            return this.bytesIn;
+        }
+
+        public long getBytesOut()
+        {
+            return this.bytesOut;
+        }
+
+        public long getAverageLag()
+        {
+            return this.averageLag;
+        }
+
+        public long getP99Lag()
+        {
+            return this.p99Lag;
+        }
+
+        public long getMaxLag()
+        {
+            return this.maxLag;
+        }
+
+        public long getHandlerExceptions()
+        {
+            long exceptions = 0;
+
+            for (ReceiverSnapshot receiver : this.receivers.values())
+                exceptions += receiver.getExceptions();
+
+            return exceptions;
+        }
+
+        public Map<String, ReceiverSnapshot> getReceivers()
+        {
+            return this.receivers;
+        }
+    }
+}
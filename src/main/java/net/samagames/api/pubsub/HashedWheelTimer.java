@@ -0,0 +1,209 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class HashedWheelTimer
+{
+    private final long tickDuration;
+    private final List<LinkedList<Timeout>> wheel;
+    private final Queue<Timeout> pendingTimeouts;
+    private final Thread workerThread;
+    private final long startTime;
+    private volatile boolean running;
+    private long tick;
+
+    /**
+     * Constructor
+     *
+     * @param tickDuration Duration of a tick, timeouts are
+     *                     rounded up to this precision
+     * @param unit Unit of the tick duration
+     * @param ticksPerWheel Number of buckets of the wheel
+     */
+    public HashedWheelTimer(long tickDuration, TimeUnit unit, int ticksPerWheel)
+    {
+        if (tickDuration <= 0 || ticksPerWheel <= 0)
+            throw new IllegalArgumentException("Tick duration and wheel size must be positive");
+
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.wheel = new ArrayList<>(ticksPerWheel);
+        this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < ticksPerWheel; i++)
+            this.wheel.add(new LinkedList<>());
+
+        this.startTime = System.nanoTime();
+        this.running = true;
+        this.tick = 0;
+
+        this.workerThread = new Thread(this::run, "Hashed wheel timer");
+        this.workerThread.setDaemon(true);
+        this.workerThread.start();
+    }
+
+    /**
+     * Constructor with a 100 milliseconds tick and 512 buckets
+     */
+    public HashedWheelTimer()
+    {
+        this(100L, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * Schedule a given task
+     *
+     * @param task Task, run on the timer thread so it has
+     *             to be short
+     * @param delay Delay before running the task
+     * @param unit Unit of the delay
+     *
+     * @return Timeout handle
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit)
+    {
+        Timeout timeout = new Timeout(task, System.nanoTime() - this.startTime + unit.toNanos(delay));
+        this.pendingTimeouts.add(timeout);
+
+        return timeout;
+    }
+
+    /**
+     * Stop the timer, scheduled tasks will never run
+     */
+    public void stop()
+    {
+        this.running = false;
+        this.workerThread.interrupt();
+    }
+
+    private void run()
+    {
+        while (this.running)
+        {
+            long deadline = this.tickDuration * (this.tick + 1);
+            long sleep = deadline - (System.nanoTime() - this.startTime);
+
+            if (sleep > 0)
+            {
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+            }
+
+            this.transferPendingTimeouts();
+
+            Iterator<Timeout> bucket = this.wheel.get((int) (this.tick % this.wheel.size())).iterator();
+
+            while (bucket.hasNext())
+            {
+                Timeout timeout = bucket.next();
+
+                if (timeout.cancelled)
+                {
+                    bucket.remove();
+                }
+                else if (timeout.remainingRounds <= 0)
+                {
+                    bucket.remove();
+                    timeout.expire();
+                }
+                else
+                {
+                    timeout.remainingRounds--;
+                }
+            }
+
+            this.tick++;
+        }
+    }
+
+    private void transferPendingTimeouts()
+    {
+        Timeout timeout;
+
+        while ((timeout = this.pendingTimeouts.poll()) != null)
+        {
+            if (timeout.cancelled)
+                continue;
+
+            long ticks = Math.max(this.tick, (timeout.deadline + this.tickDuration - 1) / this.tickDuration);
+            timeout.remainingRounds = (ticks - this.tick) / this.wheel.size();
+
+            this.wheel.get((int) (ticks % this.wheel.size())).add(timeout);
+        }
+    }
+
+    public static class Timeout
+    {
+        private final Runnable task;
+        private final long deadline;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        Timeout(Runnable task, long deadline)
+        {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task if it didn't run yet
+         */
+        public void cancel()
+        {
+            this.cancelled = true;
+        }
+
+        /**
+         * Get if the task was cancelled
+         *
+         * @return {@code true} if cancelled
+         */
+        public boolean isCancelled()
+        {
+            return this.cancelled;
+        }
+
+        private void expire()
+        {
+            try
+            {
+                this.task.run();
+            }
+            catch (Exception e)
+            {
+                Bukkit.getLogger().log(Level.SEVERE, "Timer task failed", e);
+            }
+        }
+    }
+}
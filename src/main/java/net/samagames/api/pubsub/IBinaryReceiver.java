@@ -0,0 +1,29 @@
+package net.samagames.api.pubsub;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+@FunctionalInterface
+public interface IBinaryReceiver
+{
+    /**
+     * Fired when a binary Redis PubSub message is received
+     *
+     * @param channel PubSub message's channel
+     * @param message PubSub message's content
+     */
+    void receive(String channel, byte[] message);
+}
@@ -29,6 +29,10 @@ public interface IPubSubAPI
     /**
      * Subscribe a given {@link IPatternReceiver} to a given pattern
      *
+     * Implementations should route the pattern receivers through a
+     * {@link PatternDispatcher} so only one upstream subscription is
+     * made per distinct literal prefix.
+     *
      * @param pattern Pattern to listen
      * @param receiver Receiver
      */
@@ -42,6 +46,26 @@ public interface IPubSubAPI
 	 */
 	void send(String channel, String message);
 
+    /**
+     * Subscribe a given {@link IBinaryReceiver} to a given channel,
+     * the messages are received as the raw published bytes. The
+     * Redis implementations give it to the {@link net.samagames.api.redis.RedisBinaryPubSub}
+     * they are built with
+     *
+     * @param channel Channel to listen
+     * @param receiver Receiver
+     */
+    void subscribeBinary(String channel, IBinaryReceiver receiver);
+
+    /**
+     * Send a given binary message into the given channel,
+     * the bytes are published as is
+     *
+     * @param channel Channel
+     * @param message Message
+     */
+    void send(String channel, byte[] message);
+
     /**
      * Send a PubSub message {@link PendingMessage}
      *
@@ -50,9 +74,57 @@ public interface IPubSubAPI
 	void send(PendingMessage message);
 
     /**
-     * Get the message publisher
+     * Encode a given packet with the codec registered for
+     * the given channel and send it
+     *
+     * @param channel Channel
+     * @param packet Packet
+     */
+    default void sendPacket(String channel, Object packet)
+    {
+        this.send(channel, this.getPacketRegistry().encode(channel, packet));
+    }
+
+    /**
+     * Subscribe a given {@link ITypedReceiver} to a given channel,
+     * messages are decoded with the codec registered for the channel
+     *
+     * @param channel Channel to listen
+     * @param receiver Receiver
+     * @param <T> Packet's type
+     */
+    default <T> void subscribePackets(String channel, ITypedReceiver<T> receiver)
+    {
+        this.subscribeBinary(channel, this.getPacketRegistry().adapt(receiver));
+    }
+
+    /**
+     * Get the message publisher, the Redis implementations
+     * give the {@link BatchingSender} of {@link net.samagames.api.SamaGamesAPI#getPubSubSender()}
      *
      * @return Instance
      */
 	ISender getSender();
+
+    /**
+     * Get the registry of the codecs used by the typed
+     * packets channels
+     *
+     * @return Instance
+     */
+    default PacketRegistry getPacketRegistry()
+    {
+        return PacketRegistry.getDefault();
+    }
+
+    /**
+     * Get the per channel counters of the sent and received
+     * messages and of the receivers
+     *
+     * @return Instance
+     */
+    default PubSubStatistics getStatistics()
+    {
+        return PubSubStatistics.getDefault();
+    }
 }
@@ -0,0 +1,277 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class InMemoryPubSub implements IPubSubAPI
+{
+    private final Map<String, List<IPacketsReceiver>> receivers;
+    private final Map<String, List<IBinaryReceiver>> binaryReceivers;
+    private final PatternDispatcher patternDispatcher;
+    private final PacketRegistry packetRegistry;
+    private final PubSubStatistics statistics;
+    private final BlockingQueue<Delivery> deliveryQueue;
+    private final ISender sender;
+    private final Thread deliveryThread;
+
+    private final AtomicLong publishedMessages;
+    private final AtomicLong deliveredMessages;
+
+    /**
+     * Constructor, messages are delivered in publishing order
+     * by a single subscriber thread like a Redis connection does
+     */
+    public InMemoryPubSub()
+    {
+        this.receivers = new ConcurrentHashMap<>();
+        this.binaryReceivers = new ConcurrentHashMap<>();
+        this.patternDispatcher = new PatternDispatcher();
+        this.packetRegistry = new PacketRegistry();
+        this.statistics = new PubSubStatistics();
+        this.deliveryQueue = new LinkedBlockingQueue<>();
+        this.sender = message ->
+        {
+            this.enqueue(message);
+            message.runAfter();
+        };
+
+        this.publishedMessages = new AtomicLong();
+        this.deliveredMessages = new AtomicLong();
+
+        this.deliveryThread = new Thread(this::run, "In-memory PubSub subscriber");
+        this.deliveryThread.setDaemon(true);
+        this.deliveryThread.start();
+    }
+
+    @Override
+    public void subscribe(String channel, IPacketsReceiver receiver)
+    {
+        this.receivers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(this.statistics.instrument(receiver));
+    }
+
+    @Override
+    public void subscribe(String pattern, IPatternReceiver receiver)
+    {
+        this.patternDispatcher.register(pattern, this.statistics.instrument(receiver));
+    }
+
+    @Override
+    public void subscribeBinary(String channel, IBinaryReceiver receiver)
+    {
+        this.binaryReceivers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(receiver);
+    }
+
+    @Override
+    public void send(String channel, String message)
+    {
+        this.enqueue(new PendingMessage(channel, message));
+    }
+
+    @Override
+    public void send(String channel, byte[] message)
+    {
+        this.publishedMessages.incrementAndGet();
+        this.statistics.channel(channel).recordOut(message);
+        this.deliveryQueue.add(new Delivery(channel, null, message, System.nanoTime()));
+    }
+
+    @Override
+    public void send(PendingMessage message)
+    {
+        this.sender.publish(message);
+    }
+
+    @Override
+    public ISender getSender()
+    {
+        return this.sender;
+    }
+
+    @Override
+    public PacketRegistry getPacketRegistry()
+    {
+        return this.packetRegistry;
+    }
+
+    @Override
+    public PubSubStatistics getStatistics()
+    {
+        return this.statistics;
+    }
+
+    /**
+     * Wait until every published message is delivered
+     *
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     *
+     * @return {@code true} if every message was delivered in time
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public boolean awaitDelivery(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        while (this.deliveredMessages.get() < this.publishedMessages.get())
+        {
+            if (System.nanoTime() >= deadline)
+                return false;
+
+            Thread.sleep(1L);
+        }
+
+        return true;
+    }
+
+    /**
+     * Stop the subscriber thread, queued messages are discarded
+     */
+    public void shutdown()
+    {
+        this.deliveryThread.interrupt();
+    }
+
+    /**
+     * Get the number of published messages
+     *
+     * @return Published messages count
+     */
+    public long getPublishedMessages()
+    {
+        return this.publishedMessages.get();
+    }
+
+    /**
+     * Get the number of messages handled by the subscriber thread
+     *
+     * @return Delivered messages count
+     */
+    public long getDeliveredMessages()
+    {
+        return this.deliveredMessages.get();
+    }
+
+    private void enqueue(PendingMessage message)
+    {
+        this.publishedMessages.incrementAndGet();
+        this.statistics.recordOut(message.getChannel(), message.getMessage());
+        this.deliveryQueue.add(new Delivery(message.getChannel(), message.getMessage(), null, System.nanoTime()));
+    }
+
+    private void run()
+    {
+        while (!Thread.currentThread().isInterrupted())
+        {
+            Delivery delivery;
+
+            try
+            {
+                delivery = this.deliveryQueue.take();
+            }
+            catch (InterruptedException e)
+            {
+                return;
+            }
+
+            ChannelStatistics channelStatistics = this.statistics.channel(delivery.channel);
+            channelStatistics.recordLag(System.nanoTime() - delivery.enqueuedAt);
+
+            if (delivery.binary != null)
+            {
+                channelStatistics.recordIn(delivery.binary);
+                this.deliverBinary(delivery.channel, delivery.binary);
+            }
+            else
+            {
+                channelStatistics.recordIn(delivery.message);
+                this.deliver(delivery.channel, delivery.message);
+            }
+
+            this.deliveredMessages.incrementAndGet();
+        }
+    }
+
+    private void deliver(String channel, String message)
+    {
+        List<IPacketsReceiver> channelReceivers = this.receivers.get(channel);
+
+        if (channelReceivers != null)
+        {
+            for (IPacketsReceiver receiver : channelReceivers)
+            {
+                try
+                {
+                    receiver.receive(channel, message);
+                }
+                catch (Exception e)
+                {
+                    Bukkit.getLogger().log(Level.SEVERE, "Receiver failed on channel '" + channel + "'", e);
+                }
+            }
+        }
+
+        this.patternDispatcher.dispatch(channel, message);
+    }
+
+    private void deliverBinary(String channel, byte[] message)
+    {
+        List<IBinaryReceiver> channelReceivers = this.binaryReceivers.get(channel);
+
+        if (channelReceivers == null)
+            return;
+
+        for (IBinaryReceiver receiver : channelReceivers)
+        {
+            try
+            {
+                receiver.receive(channel, message);
+            }
+            catch (Exception e)
+            {
+                Bukkit.getLogger().log(Level.SEVERE, "Receiver failed on channel '" + channel + "'", e);
+            }
+        }
+    }
+
+    private static class Delivery
+    {
+        private final String channel;
+        private final String message;
+        private final byte[] binary;
+        private final long enqueuedAt;
+
+        Delivery(String channel, String message, byte[] binary, long enqueuedAt)
+        {
+            this.channel = channel;
+            this.message = message;
+            this.binary = binary;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
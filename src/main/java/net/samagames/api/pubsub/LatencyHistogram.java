@@ -0,0 +1,120 @@
+package net.samagames.api.pubsub;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LatencyHistogram
+{
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    /**
+     * Constructor of an histogram with power of two buckets
+     */
+    public LatencyHistogram()
+    {
+        this.buckets = new AtomicLongArray(BUCKETS);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record a given duration
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+
+        this.buckets.incrementAndGet(Math.max(0, BUCKETS - 1 - Long.numberOfLeadingZeros(nanos)));
+        this.count.increment();
+        this.sum.add(nanos);
+
+        if (nanos > this.max.get())
+            this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Get the number of recorded durations
+     *
+     * @return Count
+     */
+    public long getCount()
+    {
+        return this.count.sum();
+    }
+
+    /**
+     * Get the average recorded duration in nanoseconds
+     *
+     * @return Average
+     */
+    public long getAverage()
+    {
+        long count = this.count.sum();
+        return count == 0 ? 0L : this.sum.sum() / count;
+    }
+
+    /**
+     * Get the longest recorded duration in nanoseconds
+     *
+     * @return Maximum
+     */
+    public long getMax()
+    {
+        return this.max.get();
+    }
+
+    /**
+     * Get an upper bound of a given percentile, precise
+     * to a power of two
+     *
+     * @param percentile Percentile between 0 and 100
+     *
+     * @return Duration in nanoseconds
+     */
+    public long getPercentile(double percentile)
+    {
+        long count = this.count.sum();
+
+        if (count == 0)
+            return 0L;
+
+        long target = (long) Math.ceil(count * percentile / 100.0D);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += this.buckets.get(i);
+
+            if (seen >= target)
+                return Math.min(i >= 62 ? Long.MAX_VALUE : (2L << i) - 1, this.max.get());
+        }
+
+        return this.max.get();
+    }
+}
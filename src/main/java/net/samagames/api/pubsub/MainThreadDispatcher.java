@@ -0,0 +1,181 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class MainThreadDispatcher implements Runnable
+{
+    private final Plugin plugin;
+    private final Queue<Runnable> queue;
+    private final int maxTasksPerTick;
+    private BukkitTask task;
+    private volatile PubSubStatistics statistics;
+
+    /**
+     * Constructor
+     *
+     * @param plugin Plugin owning the tick task
+     * @param maxTasksPerTick Maximum number of handlers run in one
+     *                        tick, the others wait for the next tick
+     */
+    public MainThreadDispatcher(Plugin plugin, int maxTasksPerTick)
+    {
+        if (maxTasksPerTick <= 0)
+            throw new IllegalArgumentException("Maximum tasks per tick must be positive");
+
+        this.plugin = plugin;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.maxTasksPerTick = maxTasksPerTick;
+    }
+
+    /**
+     * Start the tick task
+     */
+    public synchronized void start()
+    {
+        if (this.task == null)
+            this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this, 1L, 1L);
+    }
+
+    /**
+     * Stop the tick task, queued handlers are run before
+     * returning if called from the main thread
+     */
+    public synchronized void stop()
+    {
+        if (this.task != null)
+        {
+            this.task.cancel();
+            this.task = null;
+        }
+
+        if (Bukkit.isPrimaryThread())
+            while (!this.queue.isEmpty())
+                this.run();
+    }
+
+    /**
+     * Queue a given task to be run during the next tick
+     *
+     * @param task Task
+     */
+    public void execute(Runnable task)
+    {
+        this.queue.add(task);
+    }
+
+    /**
+     * Wrap a given receiver so its messages are handled
+     * on the main thread
+     *
+     * @param receiver Receiver
+     *
+     * @return Wrapped receiver
+     */
+    public IPacketsReceiver wrap(IPacketsReceiver receiver)
+    {
+        return (channel, packet) ->
+        {
+            long enqueuedAt = System.nanoTime();
+
+            this.execute(() ->
+            {
+                this.recordLag(channel, enqueuedAt);
+                receiver.receive(channel, packet);
+            });
+        };
+    }
+
+    /**
+     * Wrap a given pattern receiver so its messages are
+     * handled on the main thread
+     *
+     * @param receiver Receiver
+     *
+     * @return Wrapped receiver
+     */
+    public IPatternReceiver wrap(IPatternReceiver receiver)
+    {
+        return (pattern, channel, packet) ->
+        {
+            long enqueuedAt = System.nanoTime();
+
+            this.execute(() ->
+            {
+                this.recordLag(channel, enqueuedAt);
+                receiver.receive(pattern, channel, packet);
+            });
+        };
+    }
+
+    /**
+     * Set the counters receiving the time spent by the
+     * messages waiting for a tick
+     *
+     * @param statistics Statistics, or {@code null} to disable them
+     */
+    public void setStatistics(PubSubStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Get the number of handlers waiting for a tick
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth()
+    {
+        return this.queue.size();
+    }
+
+    private void recordLag(String channel, long enqueuedAt)
+    {
+        PubSubStatistics statistics = this.statistics;
+
+        if (statistics != null)
+            statistics.channel(channel).recordLag(System.nanoTime() - enqueuedAt);
+    }
+
+    @Override
+    public void run()
+    {
+        for (int i = 0; i < this.maxTasksPerTick; i++)
+        {
+            Runnable next = this.queue.poll();
+
+            if (next == null)
+                return;
+
+            try
+            {
+                next.run();
+            }
+            catch (Exception e)
+            {
+                this.plugin.getLogger().log(Level.SEVERE, "PubSub main thread handler failed", e);
+            }
+        }
+    }
+}
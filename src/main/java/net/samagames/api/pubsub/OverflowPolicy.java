@@ -0,0 +1,43 @@
+package net.samagames.api.pubsub;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public enum OverflowPolicy
+{
+    /**
+     * Wait until the queue has room, the subscriber
+     * thread is throttled
+     */
+    BLOCK,
+
+    /**
+     * Discard the incoming message
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest queued message to make
+     * room for the incoming one
+     */
+    DROP_OLDEST,
+
+    /**
+     * Run the handler on the subscriber thread, the
+     * ordering of the channel is not kept anymore
+     */
+    CALLER_RUNS
+}
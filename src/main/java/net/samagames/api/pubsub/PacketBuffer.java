@@ -0,0 +1,363 @@
+package net.samagames.api.pubsub;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PacketBuffer
+{
+    private byte[] data;
+    private int writerIndex;
+    private int readerIndex;
+
+    /**
+     * Constructor of an empty buffer to write into
+     *
+     * @param initialCapacity Initial capacity in bytes
+     */
+    public PacketBuffer(int initialCapacity)
+    {
+        this.data = new byte[Math.max(16, initialCapacity)];
+        this.writerIndex = 0;
+        this.readerIndex = 0;
+    }
+
+    /**
+     * Constructor of a buffer to read from
+     *
+     * @param data Content
+     * @param offset First readable byte
+     * @param length Number of readable bytes
+     */
+    public PacketBuffer(byte[] data, int offset, int length)
+    {
+        this.data = data;
+        this.readerIndex = offset;
+        this.writerIndex = offset + length;
+    }
+
+    /**
+     * Write an unsigned variable-length integer
+     *
+     * @param value Value
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeVarInt(int value)
+    {
+        this.ensureWritable(5);
+
+        while ((value & ~0x7F) != 0)
+        {
+            this.data[this.writerIndex++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        this.data[this.writerIndex++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Write a signed variable-length long, small
+     * negative values are zigzag encoded
+     *
+     * @param value Value
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeVarLong(long value)
+    {
+        this.ensureWritable(10);
+
+        long zigzag = (value << 1) ^ (value >> 63);
+
+        while ((zigzag & ~0x7FL) != 0)
+        {
+            this.data[this.writerIndex++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+
+        this.data[this.writerIndex++] = (byte) zigzag;
+        return this;
+    }
+
+    /**
+     * Write a single byte
+     *
+     * @param value Value
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeByte(int value)
+    {
+        this.ensureWritable(1);
+        this.data[this.writerIndex++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Write a boolean on one byte
+     *
+     * @param value Value
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeBoolean(boolean value)
+    {
+        return this.writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Write a fixed-length long
+     *
+     * @param value Value
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeLong(long value)
+    {
+        this.ensureWritable(8);
+
+        for (int i = 56; i >= 0; i -= 8)
+            this.data[this.writerIndex++] = (byte) (value >>> i);
+
+        return this;
+    }
+
+    /**
+     * Write an UUID on 16 bytes
+     *
+     * @param uuid UUID
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeUUID(UUID uuid)
+    {
+        this.writeLong(uuid.getMostSignificantBits());
+        this.writeLong(uuid.getLeastSignificantBits());
+        return this;
+    }
+
+    /**
+     * Write a length-prefixed UTF-8 string
+     *
+     * @param value String
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeString(String value)
+    {
+        return this.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write a length-prefixed byte array
+     *
+     * @param bytes Bytes
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeBytes(byte[] bytes)
+    {
+        this.writeVarInt(bytes.length);
+        this.writeRaw(bytes, 0, bytes.length);
+        return this;
+    }
+
+    /**
+     * Write bytes without length prefix
+     *
+     * @param bytes Bytes
+     * @param offset First byte to write
+     * @param length Number of bytes to write
+     *
+     * @return This buffer
+     */
+    public PacketBuffer writeRaw(byte[] bytes, int offset, int length)
+    {
+        this.ensureWritable(length);
+        System.arraycopy(bytes, offset, this.data, this.writerIndex, length);
+        this.writerIndex += length;
+        return this;
+    }
+
+    /**
+     * Read an unsigned variable-length integer
+     *
+     * @return Value
+     */
+    public int readVarInt()
+    {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7)
+        {
+            byte b = this.readByte();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IllegalStateException("VarInt is too big");
+    }
+
+    /**
+     * Read a signed variable-length long
+     *
+     * @return Value
+     */
+    public long readVarLong()
+    {
+        long zigzag = 0;
+
+        for (int shift = 0; shift < 70; shift += 7)
+        {
+            byte b = this.readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        throw new IllegalStateException("VarLong is too big");
+    }
+
+    /**
+     * Read a boolean
+     *
+     * @return Value
+     */
+    public boolean readBoolean()
+    {
+        return this.readByte() != 0;
+    }
+
+    /**
+     * Read a fixed-length long
+     *
+     * @return Value
+     */
+    public long readLong()
+    {
+        this.ensureReadable(8);
+
+        long value = 0;
+
+        for (int i = 0; i < 8; i++)
+            value = (value << 8) | (this.data[this.readerIndex++] & 0xFF);
+
+        return value;
+    }
+
+    /**
+     * Read an UUID
+     *
+     * @return UUID
+     */
+    public UUID readUUID()
+    {
+        return new UUID(this.readLong(), this.readLong());
+    }
+
+    /**
+     * Read a length-prefixed UTF-8 string
+     *
+     * @return String
+     */
+    public String readString()
+    {
+        int length = this.readVarInt();
+        this.ensureReadable(length);
+
+        String value = new String(this.data, this.readerIndex, length, StandardCharsets.UTF_8);
+        this.readerIndex += length;
+
+        return value;
+    }
+
+    /**
+     * Read a length-prefixed byte array
+     *
+     * @return Bytes
+     */
+    public byte[] readBytes()
+    {
+        int length = this.readVarInt();
+        this.ensureReadable(length);
+
+        byte[] bytes = Arrays.copyOfRange(this.data, this.readerIndex, this.readerIndex + length);
+        this.readerIndex += length;
+
+        return bytes;
+    }
+
+    /**
+     * Read a single byte
+     *
+     * @return Byte
+     */
+    public byte readByte()
+    {
+        this.ensureReadable(1);
+        return this.data[this.readerIndex++];
+    }
+
+    /**
+     * Get the number of bytes left to read
+     *
+     * @return Readable bytes
+     */
+    public int readableBytes()
+    {
+        return this.writerIndex - this.readerIndex;
+    }
+
+    /**
+     * Copy the readable bytes of this buffer
+     *
+     * @return Bytes
+     */
+    public byte[] toByteArray()
+    {
+        return Arrays.copyOfRange(this.data, this.readerIndex, this.writerIndex);
+    }
+
+    byte[] array()
+    {
+        return this.data;
+    }
+
+    int readerIndex()
+    {
+        return this.readerIndex;
+    }
+
+    private void ensureWritable(int length)
+    {
+        if (this.writerIndex + length > this.data.length)
+            this.data = Arrays.copyOf(this.data, Math.max(this.data.length << 1, this.writerIndex + length));
+    }
+
+    private void ensureReadable(int length)
+    {
+        if (this.readerIndex + length > this.writerIndex)
+            throw new IllegalStateException("Packet is truncated (needed " + length + " bytes, " + this.readableBytes() + " left)");
+    }
+}
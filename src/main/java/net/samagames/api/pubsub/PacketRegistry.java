@@ -0,0 +1,305 @@
+package net.samagames.api.pubsub;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PacketRegistry
+{
+    private static final byte FLAG_COMPRESSED = 0x01;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    // Deflate never shrinks data more than 1032 times
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    private static final PacketRegistry DEFAULT = new PacketRegistry();
+
+    private final Map<String, Registration<?>> registrations;
+    private volatile int compressionThreshold;
+    private volatile int maxPacketSize;
+
+    /**
+     * Constructor
+     *
+     * @param compressionThreshold Encoded size in bytes above which
+     *                             packets are compressed, a negative
+     *                             value disables the compression
+     */
+    public PacketRegistry(int compressionThreshold)
+    {
+        this.registrations = new ConcurrentHashMap<>();
+        this.compressionThreshold = compressionThreshold;
+        this.maxPacketSize = 1024 * 1024;
+    }
+
+    /**
+     * Constructor compressing packets bigger than 512 bytes
+     */
+    public PacketRegistry()
+    {
+        this(512);
+    }
+
+    /**
+     * Register the codec used for the packets of a given channel,
+     * {@link #unregister(String)} it first to replace it
+     *
+     * @param channel Channel
+     * @param type Packet's class
+     * @param codec Codec
+     * @param <T> Packet's type
+     *
+     * @throws IllegalStateException If a codec is already registered
+     *                               for the channel
+     */
+    public <T> void register(String channel, Class<T> type, IPacketCodec<T> codec)
+    {
+        Registration<?> previous = this.registrations.putIfAbsent(channel, new Registration<>(type, codec));
+
+        if (previous != null)
+            throw new IllegalStateException("Channel '" + channel + "' is already registered for " + previous.type.getName());
+    }
+
+    /**
+     * Unregister the codec of a given channel
+     *
+     * @param channel Channel
+     */
+    public void unregister(String channel)
+    {
+        this.registrations.remove(channel);
+    }
+
+    /**
+     * Get if a codec is registered for a given channel
+     *
+     * @param channel Channel
+     *
+     * @return {@code true} if registered
+     */
+    public boolean isRegistered(String channel)
+    {
+        return this.registrations.containsKey(channel);
+    }
+
+    /**
+     * Encode a given packet into a binary frame
+     *
+     * @param channel Packet's channel
+     * @param packet Packet
+     *
+     * @return Frame
+     */
+    public byte[] encode(String channel, Object packet)
+    {
+        PacketBuffer payload = new PacketBuffer(64);
+        this.getRegistration(channel).encode(packet, payload);
+
+        int length = payload.readableBytes();
+        int threshold = this.compressionThreshold;
+
+        if (threshold < 0 || length <= threshold)
+        {
+            byte[] frame = new byte[length + 1];
+            System.arraycopy(payload.array(), payload.readerIndex(), frame, 1, length);
+            return frame;
+        }
+
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(payload.array(), payload.readerIndex(), length);
+        deflater.finish();
+
+        PacketBuffer frame = new PacketBuffer(length / 2 + 8);
+        frame.writeByte(FLAG_COMPRESSED);
+        frame.writeVarInt(length);
+
+        byte[] chunk = new byte[Math.min(length, 8192)];
+
+        while (!deflater.finished())
+        {
+            int written = deflater.deflate(chunk);
+            frame.writeRaw(chunk, 0, written);
+        }
+
+        return frame.toByteArray();
+    }
+
+    /**
+     * Decode a binary frame
+     *
+     * @param channel Packet's channel
+     * @param frame Frame
+     * @param <T> Packet's type
+     *
+     * @return Packet
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T decode(String channel, byte[] frame)
+    {
+        if (frame.length == 0)
+            throw new IllegalArgumentException("Empty packet frame on channel '" + channel + "'");
+
+        Registration<?> registration = this.getRegistration(channel);
+
+        if ((frame[0] & FLAG_COMPRESSED) == 0)
+            return (T) registration.codec.decode(new PacketBuffer(frame, 1, frame.length - 1));
+
+        PacketBuffer header = new PacketBuffer(frame, 1, frame.length - 1);
+        int length = header.readVarInt();
+        int offset = header.readerIndex();
+
+        // The length comes from the wire, never allocate more than the frame can hold
+        if (length < 0 || length > this.maxPacketSize || length > (long) (frame.length - offset) * MAX_DEFLATE_RATIO)
+            throw new IllegalStateException("Compressed packet on channel '" + channel + "' announces an invalid length of " + length + " bytes");
+
+        byte[] payload = new byte[length];
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(frame, offset, frame.length - offset);
+
+        try
+        {
+            int read = 0;
+
+            while (read < length && !inflater.finished())
+            {
+                int inflated = inflater.inflate(payload, read, length - read);
+
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+
+                read += inflated;
+            }
+
+            if (read != length)
+                throw new IllegalStateException("Compressed packet on channel '" + channel + "' is truncated");
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalStateException("Malformed compressed packet on channel '" + channel + "'", e);
+        }
+
+        return (T) registration.codec.decode(new PacketBuffer(payload, 0, length));
+    }
+
+    /**
+     * Wrap a given typed receiver into a binary receiver
+     * decoding the packets of its channel
+     *
+     * @param receiver Typed receiver
+     * @param <T> Packet's type
+     *
+     * @return Binary receiver
+     */
+    public <T> IBinaryReceiver adapt(ITypedReceiver<T> receiver)
+    {
+        return (channel, frame) -> receiver.receive(channel, this.decode(channel, frame));
+    }
+
+    /**
+     * Set the encoded size in bytes above which packets
+     * are compressed
+     *
+     * @param compressionThreshold Threshold, a negative value
+     *                             disables the compression
+     */
+    public void setCompressionThreshold(int compressionThreshold)
+    {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    /**
+     * Get the encoded size in bytes above which packets
+     * are compressed
+     *
+     * @return Threshold
+     */
+    public int getCompressionThreshold()
+    {
+        return this.compressionThreshold;
+    }
+
+    /**
+     * Set the maximum decompressed size in bytes of
+     * a received packet
+     *
+     * @param maxPacketSize Maximum size
+     */
+    public void setMaxPacketSize(int maxPacketSize)
+    {
+        if (maxPacketSize <= 0)
+            throw new IllegalArgumentException("Maximum packet size must be positive");
+
+        this.maxPacketSize = maxPacketSize;
+    }
+
+    /**
+     * Get the maximum decompressed size in bytes of
+     * a received packet
+     *
+     * @return Maximum size
+     */
+    public int getMaxPacketSize()
+    {
+        return this.maxPacketSize;
+    }
+
+    /**
+     * Get the registry shared by the PubSub implementations
+     * not having their own
+     *
+     * @return Instance
+     */
+    public static PacketRegistry getDefault()
+    {
+        return DEFAULT;
+    }
+
+    private Registration<?> getRegistration(String channel)
+    {
+        Registration<?> registration = this.registrations.get(channel);
+
+        if (registration == null)
+            throw new IllegalArgumentException("No packet codec registered for channel '" + channel + "'");
+
+        return registration;
+    }
+
+    private static class Registration<T>
+    {
+        private final Class<T> type;
+        private final IPacketCodec<T> codec;
+
+        Registration(Class<T> type, IPacketCodec<T> codec)
+        {
+            this.type = type;
+            this.codec = codec;
+        }
+
+        void encode(Object packet, PacketBuffer buffer)
+        {
+            this.codec.encode(this.type.cast(packet), buffer);
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PatternDispatcher
+{
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final List<Registration> registrations;
+    private volatile Trie trie;
+    private volatile Set<String> upstreamPatterns;
+
+    /**
+     * Constructor
+     */
+    public PatternDispatcher()
+    {
+        this.registrations = new ArrayList<>();
+        this.trie = new Trie();
+        this.upstreamPatterns = Collections.emptySet();
+    }
+
+    /**
+     * Register a given receiver for a given Redis glob-style
+     * pattern ({@code *}, {@code ?}, {@code [...]} and {@code \}
+     * escapes are supported)
+     *
+     * @param pattern Pattern
+     * @param receiver Receiver
+     *
+     * @return The upstream patterns to subscribe to and the ones
+     *         now covered by a shorter prefix to unsubscribe from
+     */
+    public synchronized UpstreamChange register(String pattern, IPatternReceiver receiver)
+    {
+        Set<String> previous = this.upstreamPatterns;
+
+        this.registrations.add(new Registration(pattern, receiver));
+        this.rebuild();
+
+        return new UpstreamChange(previous, this.upstreamPatterns);
+    }
+
+    /**
+     * Unregister every pattern of a given receiver
+     *
+     * @param receiver Receiver
+     *
+     * @return The upstream patterns no longer needed to unsubscribe
+     *         from and the longer prefixes they were covering to
+     *         subscribe to
+     */
+    public synchronized UpstreamChange unregister(IPatternReceiver receiver)
+    {
+        Set<String> previous = this.upstreamPatterns;
+
+        if (this.registrations.removeIf(registration -> registration.receiver == receiver))
+            this.rebuild();
+
+        return new UpstreamChange(previous, this.upstreamPatterns);
+    }
+
+    /**
+     * Fire every receiver whose pattern matches the
+     * given channel
+     *
+     * @param channel Message's channel
+     * @param message Message's content
+     *
+     * @return Number of fired receivers
+     */
+    public int dispatch(String channel, String message)
+    {
+        Trie trie = this.trie;
+        Scratch scratch = SCRATCH.get();
+
+        // A receiver dispatching from its handler gets its own lists
+        if (scratch.dispatching)
+            scratch = new Scratch();
+
+        scratch.dispatching = true;
+
+        try
+        {
+            scratch.reset(trie.size);
+            scratch.add(trie.root);
+            scratch.swap();
+
+            for (int i = 0; i < channel.length() && scratch.currentSize > 0; i++)
+            {
+                char c = channel.charAt(i);
+
+                for (int j = 0; j < scratch.currentSize; j++)
+                {
+                    Node node = scratch.current[j];
+
+                    if (node.wildcard)
+                        scratch.add(node);
+
+                    Node literal = node.literal(c);
+
+                    if (literal != null)
+                        scratch.add(literal);
+
+                    if (node.any != null)
+                        scratch.add(node.any);
+
+                    for (int k = 0; k < node.classes.size(); k++)
+                    {
+                        ClassEdge edge = node.classes.get(k);
+
+                        if (edge.matches(c))
+                            scratch.add(edge.target);
+                    }
+                }
+
+                scratch.swap();
+            }
+
+            int fired = 0;
+
+            for (int j = 0; j < scratch.currentSize; j++)
+            {
+                List<Registration> receivers = scratch.current[j].receivers;
+
+                for (int k = 0; k < receivers.size(); k++)
+                {
+                    Registration registration = receivers.get(k);
+                    fired++;
+
+                    try
+                    {
+                        registration.receiver.receive(registration.pattern, channel, message);
+                    }
+                    catch (Exception e)
+                    {
+                        Bukkit.getLogger().log(Level.SEVERE, "Pattern receiver of '" + registration.pattern + "' failed on channel '" + channel + "'", e);
+                    }
+                }
+            }
+
+            return fired;
+        }
+        finally
+        {
+            scratch.release();
+        }
+    }
+
+    /**
+     * Get the minimal set of patterns that have to be
+     * subscribed upstream, one per distinct literal prefix
+     *
+     * @return Upstream patterns
+     */
+    public Set<String> getUpstreamPatterns()
+    {
+        return this.upstreamPatterns;
+    }
+
+    /**
+     * Get the number of registered receivers
+     *
+     * @return Receivers count
+     */
+    public synchronized int size()
+    {
+        return this.registrations.size();
+    }
+
+    private void rebuild()
+    {
+        Trie newTrie = new Trie();
+        TreeSet<String> prefixes = new TreeSet<>();
+
+        for (Registration registration : this.registrations)
+        {
+            compile(newTrie, registration);
+            prefixes.add(literalPrefix(registration.pattern));
+        }
+
+        Set<String> upstream = new TreeSet<>();
+        String covering = null;
+
+        // Sorted order puts every prefix right after the shorter prefixes covering it
+        for (String prefix : prefixes)
+        {
+            if (covering != null && prefix.startsWith(covering))
+                continue;
+
+            covering = prefix;
+            upstream.add(escape(prefix) + "*");
+        }
+
+        this.trie = newTrie;
+        this.upstreamPatterns = Collections.unmodifiableSet(upstream);
+    }
+
+    private static void compile(Trie trie, Registration registration)
+    {
+        String pattern = registration.pattern;
+        Node node = trie.root;
+        int i = 0;
+
+        while (i < pattern.length())
+        {
+            char c = pattern.charAt(i);
+            int end = c == '[' ? classEnd(pattern, i) : -1;
+
+            if (c == '*')
+            {
+                if (node.star == null)
+                    node.star = trie.newNode(true);
+
+                node = node.star;
+                i++;
+            }
+            else if (c == '?')
+            {
+                if (node.any == null)
+                    node.any = trie.newNode(false);
+
+                node = node.any;
+                i++;
+            }
+            else if (end != -1)
+            {
+                String definition = pattern.substring(i, end + 1);
+                ClassEdge edge = null;
+
+                for (ClassEdge existing : node.classes)
+                    if (existing.definition.equals(definition))
+                        edge = existing;
+
+                if (edge == null)
+                {
+                    edge = new ClassEdge(definition, trie.newNode(false));
+                    node.classes.add(edge);
+                }
+
+                node = edge.target;
+                i = end + 1;
+            }
+            else
+            {
+                if (c == '\\' && i + 1 < pattern.length())
+                    c = pattern.charAt(++i);
+
+                node = node.addLiteral(c, trie);
+                i++;
+            }
+        }
+
+        node.receivers.add(registration);
+    }
+
+    // An escaped bracket doesn't close the class, without a closing one the '[' is a literal
+    private static int classEnd(String pattern, int start)
+    {
+        int i = start + 1;
+
+        while (i < pattern.length() && pattern.charAt(i) != ']')
+            i += pattern.charAt(i) == '\\' ? 2 : 1;
+
+        return i < pattern.length() ? i : -1;
+    }
+
+    private static String literalPrefix(String pattern)
+    {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < pattern.length(); i++)
+        {
+            char c = pattern.charAt(i);
+
+            if (c == '*' || c == '?' || c == '[')
+                break;
+
+            if (c == '\\' && i + 1 < pattern.length())
+                c = pattern.charAt(++i);
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    private static String escape(String literal)
+    {
+        StringBuilder builder = new StringBuilder(literal.length());
+
+        for (char c : literal.toCharArray())
+        {
+            if (c == '*' || c == '?' || c == '[' || c == ']' || c == '\\')
+                builder.append('\\');
+
+            builder.append(c);
+        }
+
+        return builder.toString();
+    }
+
+    private static class Registration
+    {
+        private final String pattern;
+        private final IPatternReceiver receiver;
+
+        Registration(String pattern, IPatternReceiver receiver)
+        {
+            this.pattern = pattern;
+            this.receiver = receiver;
+        }
+    }
+
+    /**
+     * Upstream subscriptions to update after a change of
+     * the registered patterns
+     */
+    public static class UpstreamChange
+    {
+        private final Set<String> added;
+        private final Set<String> removed;
+
+        UpstreamChange(Set<String> previous, Set<String> current)
+        {
+            Set<String> added = new TreeSet<>(current);
+            added.removeAll(previous);
+
+            Set<String> removed = new TreeSet<>(previous);
+            removed.removeAll(current);
+
+            this.added = Collections.unmodifiableSet(added);
+            this.removed = Collections.unmodifiableSet(removed);
+        }
+
+        /**
+         * Get the patterns to subscribe to upstream
+         *
+         * @return Patterns
+         */
+        public Set<String> getAdded()
+        {
+            return this.added;
+        }
+
+        /**
+         * Get the patterns to unsubscribe from upstream
+         *
+         * @return Patterns
+         */
+        public Set<String> getRemoved()
+        {
+            return this.removed;
+        }
+
+        /**
+         * Get if the upstream subscriptions are unchanged
+         *
+         * @return {@code true} if nothing to update
+         */
+        public boolean isEmpty()
+        {
+            return this.added.isEmpty() && this.removed.isEmpty();
+        }
+    }
+
+    private static class Trie
+    {
+        private final Node root;
+        private int size;
+
+        Trie()
+        {
+            this.root = this.newNode(false);
+        }
+
+        Node newNode(boolean wildcard)
+        {
+            return new Node(this.size++, wildcard);
+        }
+    }
+
+    private static class Scratch
+    {
+        private Node[] current = new Node[16];
+        private Node[] next = new Node[16];
+        private int currentSize;
+        private int nextSize;
+        private int[] marks = new int[16];
+        private int generation;
+        private boolean dispatching;
+
+        void reset(int nodes)
+        {
+            if (this.marks.length < nodes)
+                this.marks = new int[Math.max(nodes, this.marks.length * 2)];
+
+            this.currentSize = 0;
+            this.nextSize = 0;
+            this.nextGeneration();
+        }
+
+        void add(Node node)
+        {
+            // A star matches the empty string, so reaching a node also reaches its star child
+            while (node != null && this.marks[node.id] != this.generation)
+            {
+                this.marks[node.id] = this.generation;
+
+                if (this.nextSize == this.next.length)
+                    this.next = Arrays.copyOf(this.next, this.nextSize * 2);
+
+                this.next[this.nextSize++] = node;
+                node = node.star;
+            }
+        }
+
+        void swap()
+        {
+            Arrays.fill(this.current, 0, this.currentSize, null);
+
+            Node[] swap = this.current;
+            this.current = this.next;
+            this.next = swap;
+            this.currentSize = this.nextSize;
+            this.nextSize = 0;
+            this.nextGeneration();
+        }
+
+        void release()
+        {
+            // Do not keep a replaced trie reachable
+            Arrays.fill(this.current, 0, this.currentSize, null);
+            Arrays.fill(this.next, 0, this.nextSize, null);
+            this.dispatching = false;
+        }
+
+        private void nextGeneration()
+        {
+            if (++this.generation == 0)
+            {
+                Arrays.fill(this.marks, 0);
+                this.generation = 1;
+            }
+        }
+    }
+
+    private static class Node
+    {
+        private static final char[] NO_LITERALS = new char[0];
+
+        private final int id;
+        private final boolean wildcard;
+        private final List<ClassEdge> classes;
+        private final List<Registration> receivers;
+        private char[] literals;
+        private Node[] literalTargets;
+        private Node any;
+        private Node star;
+
+        Node(int id, boolean wildcard)
+        {
+            this.id = id;
+            this.wildcard = wildcard;
+            this.classes = new ArrayList<>(0);
+            this.receivers = new ArrayList<>(0);
+            this.literals = NO_LITERALS;
+            this.literalTargets = new Node[0];
+        }
+
+        // Sorted keys searched without boxing, any char can be looked up
+        Node literal(char c)
+        {
+            int index = Arrays.binarySearch(this.literals, c);
+            return index < 0 ? null : this.literalTargets[index];
+        }
+
+        Node addLiteral(char c, Trie trie)
+        {
+            int index = Arrays.binarySearch(this.literals, c);
+
+            if (index >= 0)
+                return this.literalTargets[index];
+
+            int insertion = -index - 1;
+            int size = this.literals.length;
+            Node target = trie.newNode(false);
+
+            char[] literals = new char[size + 1];
+            Node[] literalTargets = new Node[size + 1];
+
+            System.arraycopy(this.literals, 0, literals, 0, insertion);
+            System.arraycopy(this.literalTargets, 0, literalTargets, 0, insertion);
+            literals[insertion] = c;
+            literalTargets[insertion] = target;
+            System.arraycopy(this.literals, insertion, literals, insertion + 1, size - insertion);
+            System.arraycopy(this.literalTargets, insertion, literalTargets, insertion + 1, size - insertion);
+
+            this.literals = literals;
+            this.literalTargets = literalTargets;
+
+            return target;
+        }
+    }
+
+    private static class ClassEdge
+    {
+        private final String definition;
+        private final boolean negated;
+        private final char[] from;
+        private final char[] to;
+        private final Node target;
+
+        ClassEdge(String definition, Node target)
+        {
+            this.definition = definition;
+            this.target = target;
+
+            String body = definition.substring(1, definition.length() - 1);
+            this.negated = body.startsWith("^");
+
+            if (this.negated)
+                body = body.substring(1);
+
+            List<char[]> ranges = new ArrayList<>();
+
+            for (int i = 0; i < body.length(); i++)
+            {
+                char start = body.charAt(i);
+
+                if (start == '\\' && i + 1 < body.length())
+                    start = body.charAt(++i);
+
+                char end = start;
+
+                if (i + 2 < body.length() && body.charAt(i + 1) == '-')
+                {
+                    end = body.charAt(i + 2);
+                    i += 2;
+
+                    if (end == '\\' && i + 1 < body.length())
+                        end = body.charAt(++i);
+
+                    if (end < start)
+                    {
+                        char swap = start;
+                        start = end;
+                        end = swap;
+                    }
+                }
+
+                ranges.add(new char[] { start, end });
+            }
+
+            this.from = new char[ranges.size()];
+            this.to = new char[ranges.size()];
+
+            for (int i = 0; i < ranges.size(); i++)
+            {
+                this.from[i] = ranges.get(i)[0];
+                this.to[i] = ranges.get(i)[1];
+            }
+        }
+
+        boolean matches(char c)
+        {
+            for (int i = 0; i < this.from.length; i++)
+                if (c >= this.from[i] && c <= this.to[i])
+                    return !this.negated;
+
+            return this.negated;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package net.samagames.api.pubsub;
 
+import java.util.function.Consumer;
+
 /*
  * This file is part of SamaGamesAPI.
  *
@@ -21,6 +23,24 @@ public class PendingMessage
 	private final String channel;
 	private final String message;
 	private final Runnable callback;
+    private final Consumer<Throwable> failureCallback;
+
+    /**
+     * Constructor
+     *
+     * @param channel Message's channel
+     * @param message Message's content
+     * @param callback Callback fired after the operation
+     * @param failureCallback Callback fired if the message
+     *                        could not be sent
+     */
+    public PendingMessage(String channel, String message, Runnable callback, Consumer<Throwable> failureCallback)
+    {
+        this.channel = channel;
+        this.message = message;
+        this.callback = callback;
+        this.failureCallback = failureCallback;
+    }
 
     /**
      * Constructor
@@ -31,9 +51,7 @@ public class PendingMessage
      */
 	public PendingMessage(String channel, String message, Runnable callback)
     {
-		this.channel = channel;
-		this.message = message;
-		this.callback = callback;
+		this(channel, message, callback, null);
 	}
 
     /**
@@ -60,6 +78,21 @@ public class PendingMessage
         catch (Exception ignored) {}
     }
 
+    /**
+     * Fire failure callback
+     *
+     * @param cause Reason of the failure
+     */
+    public void runAfterFailure(Throwable cause)
+    {
+        try
+        {
+            if (this.failureCallback != null)
+                this.failureCallback.accept(cause);
+        }
+        catch (Exception ignored) {}
+    }
+
     /**
      * Get message's channel
      *
@@ -0,0 +1,206 @@
+package net.samagames.api.pubsub;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PubSubRequester implements IPacketsReceiver
+{
+    private final IPubSubAPI pubSub;
+    private final String requestChannel;
+    private final String origin;
+    private final long timeout;
+    private final HashedWheelTimer timer;
+
+    private final AtomicInteger idGenerator;
+    private final Map<Integer, PendingRequest> pendingRequests;
+
+    private final AtomicLong completedRequests;
+    private final AtomicLong timedOutRequests;
+    private final AtomicLong totalLatency;
+    private final AtomicLong maxLatency;
+
+    /**
+     * Constructor, requests are sent as {@code <origin>/<id>:<body>}
+     * and replies are expected in the same format on the
+     * response channel
+     *
+     * @param pubSub PubSub API
+     * @param requestChannel Channel where requests are sent
+     * @param responseChannel Channel where replies are received
+     * @param origin Identifier of this server into the requests
+     * @param timeout Timeout of a request in milliseconds
+     * @param timer Timer firing the timeouts
+     */
+    public PubSubRequester(IPubSubAPI pubSub, String requestChannel, String responseChannel, String origin, long timeout, HashedWheelTimer timer)
+    {
+        this.pubSub = pubSub;
+        this.requestChannel = requestChannel;
+        this.origin = origin;
+        this.timeout = timeout;
+        this.timer = timer;
+
+        this.idGenerator = new AtomicInteger();
+        this.pendingRequests = new ConcurrentHashMap<>();
+
+        this.completedRequests = new AtomicLong();
+        this.timedOutRequests = new AtomicLong();
+        this.totalLatency = new AtomicLong();
+        this.maxLatency = new AtomicLong();
+
+        pubSub.subscribe(responseChannel, this);
+    }
+
+    /**
+     * Send a request, the returned future is completed on the
+     * subscriber thread with the reply body, or exceptionally
+     * with a {@link TimeoutException}
+     *
+     * @param body Request's body
+     *
+     * @return Future reply
+     */
+    public CompletableFuture<String> request(String body)
+    {
+        int id = this.idGenerator.getAndIncrement();
+        PendingRequest request = new PendingRequest();
+
+        this.pendingRequests.put(id, request);
+
+        request.timeout = this.timer.schedule(() ->
+        {
+            if (this.pendingRequests.remove(id, request))
+            {
+                this.timedOutRequests.incrementAndGet();
+                request.future.completeExceptionally(new TimeoutException("No reply to request " + id + " on '" + this.requestChannel + "'"));
+            }
+        }, this.timeout, TimeUnit.MILLISECONDS);
+
+        try
+        {
+            this.pubSub.send(this.requestChannel, this.origin + "/" + id + ":" + body);
+        }
+        catch (Exception e)
+        {
+            this.pendingRequests.remove(id);
+            request.timeout.cancel();
+            request.future.completeExceptionally(e);
+        }
+
+        return request.future;
+    }
+
+    @Override
+    public void receive(String channel, String packet)
+    {
+        int separator = packet.indexOf(':');
+        String prefix = separator == -1 ? packet : packet.substring(0, separator);
+        int slash = prefix.lastIndexOf('/');
+
+        if (slash == -1 || !prefix.substring(0, slash).equals(this.origin))
+            return;
+
+        PendingRequest request;
+
+        try
+        {
+            request = this.pendingRequests.remove(Integer.parseInt(prefix.substring(slash + 1)));
+        }
+        catch (NumberFormatException e)
+        {
+            return;
+        }
+
+        if (request == null)
+            return;
+
+        request.timeout.cancel();
+
+        long latency = System.nanoTime() - request.sentAt;
+        this.completedRequests.incrementAndGet();
+        this.totalLatency.addAndGet(latency);
+        this.maxLatency.accumulateAndGet(latency, Math::max);
+
+        request.future.complete(separator == -1 ? "" : packet.substring(separator + 1));
+    }
+
+    /**
+     * Get the number of requests waiting for a reply
+     *
+     * @return In-flight requests count
+     */
+    public int getInFlightRequests()
+    {
+        return this.pendingRequests.size();
+    }
+
+    /**
+     * Get the number of replied requests
+     *
+     * @return Completed requests count
+     */
+    public long getCompletedRequests()
+    {
+        return this.completedRequests.get();
+    }
+
+    /**
+     * Get the number of requests without reply
+     *
+     * @return Timed out requests count
+     */
+    public long getTimedOutRequests()
+    {
+        return this.timedOutRequests.get();
+    }
+
+    /**
+     * Get the average time between a request and its
+     * reply in nanoseconds
+     *
+     * @return Average latency
+     */
+    public long getAverageLatency()
+    {
+        long completed = this.completedRequests.get();
+        return completed == 0 ? 0L : this.totalLatency.get() / completed;
+    }
+
+    /**
+     * Get the longest time between a request and its
+     * reply in nanoseconds
+     *
+     * @return Maximum latency
+     */
+    public long getMaxLatency()
+    {
+        return this.maxLatency.get();
+    }
+
+    private static class PendingRequest
+    {
+        private final CompletableFuture<String> future = new CompletableFuture<>();
+        private final long sentAt = System.nanoTime();
+        private volatile HashedWheelTimer.Timeout timeout;
+    }
+}
@@ -0,0 +1,212 @@
+package net.samagames.api.pubsub;
+
+import com.google.gson.Gson;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PubSubStatistics
+{
+    private static final Gson GSON = new Gson();
+    private static final PubSubStatistics DEFAULT = new PubSubStatistics();
+
+    private final Map<String, ChannelStatistics> channels;
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Constructor
+     */
+    public PubSubStatistics()
+    {
+        this.channels = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the counters of a given channel, created if
+     * needed
+     *
+     * @param channel Channel
+     *
+     * @return Instance
+     */
+    public ChannelStatistics channel(String channel)
+    {
+        ChannelStatistics statistics = this.channels.get(channel);
+
+        if (statistics == null)
+            statistics = this.channels.computeIfAbsent(channel, ChannelStatistics::new);
+
+        return statistics;
+    }
+
+    /**
+     * Record a message received on a given channel
+     *
+     * @param channel Channel
+     * @param payload Message's content
+     */
+    public void recordIn(String channel, String payload)
+    {
+        this.channel(channel).recordIn(payload);
+    }
+
+    /**
+     * Record a message published on a given channel
+     *
+     * @param channel Channel
+     * @param payload Message's content
+     */
+    public void recordOut(String channel, String payload)
+    {
+        this.channel(channel).recordOut(payload);
+    }
+
+    /**
+     * Wrap a given receiver so its handling time and
+     * exceptions are recorded
+     *
+     * @param receiver Receiver
+     *
+     * @return Instrumented receiver
+     */
+    public IPacketsReceiver instrument(IPacketsReceiver receiver)
+    {
+        String name = receiver.getClass().getName();
+
+        return (channel, packet) ->
+        {
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                receiver.receive(channel, packet);
+                failed = false;
+            }
+            finally
+            {
+                this.channel(channel).recordInvocation(name, System.nanoTime() - start, failed);
+            }
+        };
+    }
+
+    /**
+     * Wrap a given pattern receiver so its handling time
+     * and exceptions are recorded
+     *
+     * @param receiver Receiver
+     *
+     * @return Instrumented receiver
+     */
+    public IPatternReceiver instrument(IPatternReceiver receiver)
+    {
+        String name = receiver.getClass().getName();
+
+        return (pattern, channel, packet) ->
+        {
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                receiver.receive(pattern, channel, packet);
+                failed = false;
+            }
+            finally
+            {
+                this.channel(channel).recordInvocation(name, System.nanoTime() - start, failed);
+            }
+        };
+    }
+
+    /**
+     * Get an immutable copy of the counters of
+     * every channel
+     *
+     * @return Snapshots sorted by channel
+     */
+    public Map<String, ChannelStatistics.Snapshot> snapshot()
+    {
+        Map<String, ChannelStatistics.Snapshot> snapshots = new TreeMap<>();
+        this.channels.forEach((channel, statistics) -> snapshots.put(channel, statistics.snapshot()));
+
+        return snapshots;
+    }
+
+    /**
+     * Publish a JSON snapshot of the counters on a given
+     * channel periodically
+     *
+     * @param pubSub PubSub used to publish
+     * @param channel Reporting channel
+     * @param period Time in milliseconds between two reports
+     */
+    public synchronized void startReporting(IPubSubAPI pubSub, String channel, long period)
+    {
+        this.stopReporting();
+
+        this.reporter = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "PubSub statistics reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reporter.scheduleAtFixedRate(() ->
+        {
+            try
+            {
+                pubSub.send(channel, GSON.toJson(this.snapshot()));
+            }
+            catch (Exception e)
+            {
+                Bukkit.getLogger().log(Level.WARNING, "Failed to publish PubSub statistics", e);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic reports
+     */
+    public synchronized void stopReporting()
+    {
+        if (this.reporter != null)
+        {
+            this.reporter.shutdownNow();
+            this.reporter = null;
+        }
+    }
+
+    /**
+     * Get the counters shared by the PubSub implementations
+     * not having their own
+     *
+     * @return Instance
+     */
+    public static PubSubStatistics getDefault()
+    {
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,292 @@
+package net.samagames.api.pubsub;
+
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class StripedDispatcher
+{
+    private final Lane[] lanes;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong droppedMessages;
+    private volatile PubSubStatistics statistics;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     *
+     * @param stripes Number of worker threads, every channel is
+     *                always handled by the same one
+     * @param queueCapacity Maximum number of queued messages per worker
+     * @param overflowPolicy Behavior when a worker queue is full
+     */
+    public StripedDispatcher(int stripes, int queueCapacity, OverflowPolicy overflowPolicy)
+    {
+        if (stripes <= 0 || queueCapacity <= 0)
+            throw new IllegalArgumentException("Stripes and queue capacity must be positive");
+
+        this.lanes = new Lane[stripes];
+        this.overflowPolicy = overflowPolicy;
+        this.droppedMessages = new AtomicLong();
+        this.running = true;
+
+        for (int i = 0; i < stripes; i++)
+            this.lanes[i] = new Lane(i, queueCapacity);
+    }
+
+    /**
+     * Constructor with one worker per available core, 1024
+     * queued messages per worker and the {@link OverflowPolicy#BLOCK}
+     * policy
+     */
+    public StripedDispatcher()
+    {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()), 1024, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * Run a given task on the worker owning the given channel,
+     * the task is dropped once the dispatcher is shut down
+     *
+     * @param channel Channel
+     * @param task Task
+     */
+    public void execute(String channel, Runnable task)
+    {
+        if (!this.running)
+        {
+            this.droppedMessages.incrementAndGet();
+            return;
+        }
+
+        Lane lane = this.lanes[stripe(channel, this.lanes.length)];
+
+        if (lane.queue.offer(task))
+        {
+            this.discardIfShutdown(lane, task);
+            return;
+        }
+
+        switch (this.overflowPolicy)
+        {
+            case BLOCK:
+                try
+                {
+                    // Waits by slices so a shutdown never leaves the caller blocked
+                    while (!lane.queue.offer(task, 100L, TimeUnit.MILLISECONDS))
+                    {
+                        if (!this.running)
+                        {
+                            this.droppedMessages.incrementAndGet();
+                            return;
+                        }
+                    }
+
+                    this.discardIfShutdown(lane, task);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    this.droppedMessages.incrementAndGet();
+                }
+                break;
+
+            case DROP_OLDEST:
+                while (!lane.queue.offer(task))
+                    if (lane.queue.poll() != null)
+                        this.droppedMessages.incrementAndGet();
+
+                this.discardIfShutdown(lane, task);
+                break;
+
+            case CALLER_RUNS:
+                runSafely(task);
+                break;
+
+            case DROP_NEWEST:
+            default:
+                this.droppedMessages.incrementAndGet();
+                break;
+        }
+    }
+
+    /**
+     * Wrap a given receiver so its messages are handled
+     * by the workers
+     *
+     * @param receiver Receiver
+     *
+     * @return Wrapped receiver
+     */
+    public IPacketsReceiver wrap(IPacketsReceiver receiver)
+    {
+        return (channel, packet) ->
+        {
+            long enqueuedAt = System.nanoTime();
+
+            this.execute(channel, () ->
+            {
+                this.recordLag(channel, enqueuedAt);
+                receiver.receive(channel, packet);
+            });
+        };
+    }
+
+    /**
+     * Wrap a given pattern receiver so its messages are
+     * handled by the workers
+     *
+     * @param receiver Receiver
+     *
+     * @return Wrapped receiver
+     */
+    public IPatternReceiver wrap(IPatternReceiver receiver)
+    {
+        return (pattern, channel, packet) ->
+        {
+            long enqueuedAt = System.nanoTime();
+
+            this.execute(channel, () ->
+            {
+                this.recordLag(channel, enqueuedAt);
+                receiver.receive(pattern, channel, packet);
+            });
+        };
+    }
+
+    /**
+     * Set the counters receiving the time spent by the
+     * messages in the queues
+     *
+     * @param statistics Statistics, or {@code null} to disable them
+     */
+    public void setStatistics(PubSubStatistics statistics)
+    {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Stop every worker, queued messages are discarded
+     */
+    public void shutdown()
+    {
+        this.running = false;
+
+        for (Lane lane : this.lanes)
+        {
+            lane.thread.interrupt();
+            this.droppedMessages.addAndGet(lane.queue.size());
+            lane.queue.clear();
+        }
+    }
+
+    /**
+     * Get the number of queued messages over every worker
+     *
+     * @return Queue depth
+     */
+    public int getQueueDepth()
+    {
+        int depth = 0;
+
+        for (Lane lane : this.lanes)
+            depth += lane.queue.size();
+
+        return depth;
+    }
+
+    /**
+     * Get the number of messages discarded because
+     * of the overflow policy
+     *
+     * @return Dropped messages count
+     */
+    public long getDroppedMessages()
+    {
+        return this.droppedMessages.get();
+    }
+
+    static int stripe(String channel, int stripes)
+    {
+        int hash = channel.hashCode();
+        hash ^= (hash >>> 16);
+
+        return (hash & 0x7FFFFFFF) % stripes;
+    }
+
+    private void discardIfShutdown(Lane lane, Runnable task)
+    {
+        // Queued while shutting down, after the queue was cleared
+        if (!this.running && lane.queue.remove(task))
+            this.droppedMessages.incrementAndGet();
+    }
+
+    private void recordLag(String channel, long enqueuedAt)
+    {
+        PubSubStatistics statistics = this.statistics;
+
+        if (statistics != null)
+            statistics.channel(channel).recordLag(System.nanoTime() - enqueuedAt);
+    }
+
+    private static void runSafely(Runnable task)
+    {
+        try
+        {
+            task.run();
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "PubSub receiver failed", e);
+        }
+    }
+
+    private static class Lane
+    {
+        private final BlockingQueue<Runnable> queue;
+        private final Thread thread;
+
+        Lane(int index, int capacity)
+        {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::run, "PubSub dispatcher #" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void run()
+        {
+            while (!Thread.currentThread().isInterrupted())
+            {
+                try
+                {
+                    runSafely(this.queue.take());
+                }
+                catch (InterruptedException e)
+                {
+                    return;
+                }
+            }
+        }
+    }
+}
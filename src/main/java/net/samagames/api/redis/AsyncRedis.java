@@ -0,0 +1,125 @@
+package net.samagames.api.redis;
+
+import redis.clients.jedis.Jedis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AsyncRedis
+{
+    private final RedisLeaseManager leaseManager;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor
+     *
+     * @param leaseManager Lease manager providing the connections
+     * @param threads Number of threads running the commands
+     */
+    public AsyncRedis(RedisLeaseManager leaseManager, int threads)
+    {
+        AtomicInteger counter = new AtomicInteger();
+
+        this.leaseManager = leaseManager;
+        this.executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "Async Redis #" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run a given function with a leased connection
+     * out of the calling thread
+     *
+     * @param function Function
+     * @param <T> Result's type
+     *
+     * @return Future result
+     */
+    public <T> CompletableFuture<T> call(Function<Jedis, T> function)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try (RedisLease lease = this.leaseManager.lease())
+            {
+                if (lease == null)
+                    throw new IllegalStateException("No Redis connection available");
+
+                return function.apply(lease.getResource());
+            }
+        }, this.executor);
+    }
+
+    /**
+     * Run a given action with a leased connection
+     * out of the calling thread
+     *
+     * @param action Action
+     *
+     * @return Future completion
+     */
+    public CompletableFuture<Void> run(Consumer<Jedis> action)
+    {
+        return this.call(jedis ->
+        {
+            action.accept(jedis);
+            return null;
+        });
+    }
+
+    /**
+     * Get the value of a given key
+     *
+     * @param key Key
+     *
+     * @return Future value
+     */
+    public CompletableFuture<String> get(String key)
+    {
+        return this.call(jedis -> jedis.get(key));
+    }
+
+    /**
+     * Set the value of a given key with an expiration
+     *
+     * @param key Key
+     * @param seconds Time to live in seconds
+     * @param value Value
+     *
+     * @return Future completion
+     */
+    public CompletableFuture<Void> setex(String key, int seconds, String value)
+    {
+        return this.run(jedis -> jedis.setex(key, seconds, value));
+    }
+
+    /**
+     * Stop the threads, queued commands are still run
+     */
+    public void shutdown()
+    {
+        this.executor.shutdown();
+    }
+}
@@ -0,0 +1,201 @@
+package net.samagames.api.redis;
+
+import net.samagames.api.pubsub.IBinaryReceiver;
+import org.bukkit.Bukkit;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class RedisBinaryPubSub
+{
+    private final RedisLeaseManager leaseManager;
+    private final Supplier<Jedis> subscriberSupplier;
+    private final Map<String, List<IBinaryReceiver>> receivers;
+    private final Set<String> subscribedChannels;
+    private Thread subscriberThread;
+    private volatile Subscriber subscriber;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     *
+     * @param leaseManager Lease manager providing the publishing
+     *                     connections
+     * @param subscriberSupplier Supplier of the connection kept by
+     *                           the subscriber thread
+     */
+    public RedisBinaryPubSub(RedisLeaseManager leaseManager, Supplier<Jedis> subscriberSupplier)
+    {
+        this.leaseManager = leaseManager;
+        this.subscriberSupplier = subscriberSupplier;
+        this.receivers = new ConcurrentHashMap<>();
+        this.subscribedChannels = ConcurrentHashMap.newKeySet();
+        this.running = true;
+    }
+
+    /**
+     * Publish a given binary message into the given channel,
+     * the bytes are sent as is
+     *
+     * @param channel Channel
+     * @param message Message
+     */
+    public void publish(String channel, byte[] message)
+    {
+        try (RedisLease lease = this.leaseManager.lease())
+        {
+            if (lease == null)
+                throw new IllegalStateException("No Redis connection available");
+
+            lease.getResource().publish(channel.getBytes(StandardCharsets.UTF_8), message);
+        }
+    }
+
+    /**
+     * Subscribe a given {@link IBinaryReceiver} to a given channel,
+     * the subscriber thread is started on first call
+     *
+     * @param channel Channel to listen
+     * @param receiver Receiver
+     */
+    public void subscribe(String channel, IBinaryReceiver receiver)
+    {
+        if (!this.running)
+            throw new IllegalStateException("Binary PubSub is shut down");
+
+        this.receivers.computeIfAbsent(channel, key -> new CopyOnWriteArrayList<>()).add(receiver);
+
+        synchronized (this)
+        {
+            if (this.subscriberThread == null)
+            {
+                this.subscriberThread = new Thread(this::run, "Redis binary PubSub subscriber");
+                this.subscriberThread.setDaemon(true);
+                this.subscriberThread.start();
+                return;
+            }
+        }
+
+        this.subscribeMissing();
+    }
+
+    /**
+     * Unsubscribe every channel and stop the subscriber thread
+     */
+    public void shutdown()
+    {
+        this.running = false;
+
+        Subscriber current = this.subscriber;
+
+        if (current != null && current.isSubscribed())
+            current.unsubscribe();
+    }
+
+    private void run()
+    {
+        while (this.running)
+        {
+            Subscriber current = new Subscriber();
+            this.subscriber = current;
+            this.subscribedChannels.clear();
+
+            try (Jedis jedis = this.subscriberSupplier.get())
+            {
+                List<byte[]> channels = new ArrayList<>();
+
+                for (String channel : this.receivers.keySet())
+                    if (this.subscribedChannels.add(channel))
+                        channels.add(channel.getBytes(StandardCharsets.UTF_8));
+
+                jedis.subscribe(current, channels.toArray(new byte[channels.size()][]));
+            }
+            catch (Exception e)
+            {
+                if (!this.running)
+                    return;
+
+                Bukkit.getLogger().log(Level.WARNING, "Binary PubSub subscriber lost its connection, reconnecting", e);
+
+                try
+                {
+                    Thread.sleep(1000L);
+                }
+                catch (InterruptedException ignored)
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void subscribeMissing()
+    {
+        Subscriber current = this.subscriber;
+
+        // Not connected yet, the channels are all subscribed by the next connection
+        if (current == null || !current.isSubscribed())
+            return;
+
+        for (String channel : this.receivers.keySet())
+            if (this.subscribedChannels.add(channel))
+                current.subscribe(channel.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private class Subscriber extends BinaryJedisPubSub
+    {
+        @Override
+        public void onMessage(byte[] channel, byte[] message)
+        {
+            String name = new String(channel, StandardCharsets.UTF_8);
+            List<IBinaryReceiver> channelReceivers = RedisBinaryPubSub.this.receivers.get(name);
+
+            if (channelReceivers == null)
+                return;
+
+            for (IBinaryReceiver receiver : channelReceivers)
+            {
+                try
+                {
+                    receiver.receive(name, message);
+                }
+                catch (Exception e)
+                {
+                    Bukkit.getLogger().log(Level.SEVERE, "Receiver failed on channel '" + name + "'", e);
+                }
+            }
+        }
+
+        @Override
+        public void onSubscribe(byte[] channel, int subscribedChannels)
+        {
+            // Catch up the channels added while the connection was being made
+            RedisBinaryPubSub.this.subscribeMissing();
+        }
+    }
+}
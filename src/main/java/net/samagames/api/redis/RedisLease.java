@@ -0,0 +1,99 @@
+package net.samagames.api.redis;
+
+import redis.clients.jedis.Jedis;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class RedisLease implements AutoCloseable
+{
+    private final RedisLeaseManager manager;
+    private final Jedis resource;
+    private final long borrowTime;
+    private final Throwable borrowTrace;
+    private volatile boolean closed;
+    private boolean reported;
+
+    RedisLease(RedisLeaseManager manager, Jedis resource, Throwable borrowTrace)
+    {
+        this.manager = manager;
+        this.resource = resource;
+        this.borrowTime = System.currentTimeMillis();
+        this.borrowTrace = borrowTrace;
+        this.closed = false;
+    }
+
+    /**
+     * Get the leased Redis connection
+     *
+     * @return Jedis {@link Jedis} instance
+     */
+    public Jedis getResource()
+    {
+        if (this.closed)
+            throw new IllegalStateException("Redis lease is already closed");
+
+        return this.resource;
+    }
+
+    /**
+     * Give the connection back to the pool
+     */
+    @Override
+    public void close()
+    {
+        if (this.closed)
+            return;
+
+        this.closed = true;
+        this.manager.release(this);
+    }
+
+    /**
+     * Get the time the connection was borrowed at
+     *
+     * @return Time in milliseconds
+     */
+    public long getBorrowTime()
+    {
+        return this.borrowTime;
+    }
+
+    /**
+     * Get the stack trace of the borrowing code, if
+     * the leak detection captures them
+     *
+     * @return Trace, {@code null} if not captured
+     */
+    public Throwable getBorrowTrace()
+    {
+        return this.borrowTrace;
+    }
+
+    synchronized boolean markReported()
+    {
+        if (this.reported)
+            return false;
+
+        this.reported = true;
+        return true;
+    }
+
+    Jedis getRawResource()
+    {
+        return this.resource;
+    }
+}
@@ -0,0 +1,251 @@
+package net.samagames.api.redis;
+
+import org.bukkit.Bukkit;
+import redis.clients.jedis.Jedis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class RedisLeaseManager
+{
+    private final Supplier<Jedis> resourceSupplier;
+    private final long leakThreshold;
+    private final boolean captureTraces;
+    private final Set<RedisLease> activeLeases;
+    private final ScheduledExecutorService leakDetector;
+
+    private final AtomicLong borrowedLeases;
+    private final AtomicLong failedBorrows;
+    private final AtomicLong totalBorrowLatency;
+    private final AtomicLong maxBorrowLatency;
+    private final AtomicLong detectedLeaks;
+
+    /**
+     * Constructor
+     *
+     * @param resourceSupplier Redis connection provider
+     * @param leakThreshold Time in milliseconds after which a lease
+     *                      not closed is reported as leaked, zero or
+     *                      negative disables the leak detection
+     * @param captureTraces Record the stack trace of every borrow
+     *                      to report where leaked leases come from
+     */
+    public RedisLeaseManager(Supplier<Jedis> resourceSupplier, long leakThreshold, boolean captureTraces)
+    {
+        this.resourceSupplier = resourceSupplier;
+        this.leakThreshold = leakThreshold;
+        this.captureTraces = captureTraces;
+        this.activeLeases = ConcurrentHashMap.newKeySet();
+
+        this.borrowedLeases = new AtomicLong();
+        this.failedBorrows = new AtomicLong();
+        this.totalBorrowLatency = new AtomicLong();
+        this.maxBorrowLatency = new AtomicLong();
+        this.detectedLeaks = new AtomicLong();
+
+        if (leakThreshold > 0)
+        {
+            this.leakDetector = Executors.newSingleThreadScheduledExecutor(runnable ->
+            {
+                Thread thread = new Thread(runnable, "Redis leak detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            this.leakDetector.scheduleWithFixedDelay(this::detectLeaks, leakThreshold, leakThreshold, TimeUnit.MILLISECONDS);
+        }
+        else
+        {
+            this.leakDetector = null;
+        }
+    }
+
+    /**
+     * Constructor reporting leases kept more than 30 seconds,
+     * without stack traces
+     *
+     * @param resourceSupplier Redis connection provider
+     */
+    public RedisLeaseManager(Supplier<Jedis> resourceSupplier)
+    {
+        this(resourceSupplier, 30000L, false);
+    }
+
+    /**
+     * Borrow a Redis connection, to be used into a
+     * try-with-resources block
+     *
+     * @return Lease, {@code null} if no connection is available
+     */
+    public RedisLease lease()
+    {
+        long start = System.nanoTime();
+        Jedis resource;
+
+        try
+        {
+            resource = this.resourceSupplier.get();
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to borrow a Redis connection", e);
+            resource = null;
+        }
+
+        long latency = System.nanoTime() - start;
+        this.totalBorrowLatency.addAndGet(latency);
+        this.maxBorrowLatency.accumulateAndGet(latency, Math::max);
+
+        if (resource == null)
+        {
+            this.failedBorrows.incrementAndGet();
+            return null;
+        }
+
+        this.borrowedLeases.incrementAndGet();
+
+        RedisLease lease = new RedisLease(this, resource, this.captureTraces ? new Throwable("Redis lease borrowed here") : null);
+        this.activeLeases.add(lease);
+
+        return lease;
+    }
+
+    /**
+     * Report the leases kept longer than the leak threshold,
+     * each leaked lease being reported once
+     *
+     * @return Leases leaked since the previous detection
+     */
+    public List<RedisLease> detectLeaks()
+    {
+        List<RedisLease> leaks = new ArrayList<>();
+        long limit = System.currentTimeMillis() - this.leakThreshold;
+
+        for (RedisLease lease : this.activeLeases)
+        {
+            if (lease.getBorrowTime() < limit && lease.markReported())
+            {
+                leaks.add(lease);
+
+                if (lease.getBorrowTrace() != null)
+                    Bukkit.getLogger().log(Level.WARNING, "Redis lease not closed after " + (System.currentTimeMillis() - lease.getBorrowTime()) + " ms", lease.getBorrowTrace());
+            }
+        }
+
+        if (!leaks.isEmpty())
+        {
+            this.detectedLeaks.addAndGet(leaks.size());
+            Bukkit.getLogger().warning(leaks.size() + " Redis lease(s) kept longer than " + this.leakThreshold + " ms");
+        }
+
+        return leaks;
+    }
+
+    /**
+     * Stop the leak detection
+     */
+    public void shutdown()
+    {
+        if (this.leakDetector != null)
+            this.leakDetector.shutdownNow();
+    }
+
+    void release(RedisLease lease)
+    {
+        this.activeLeases.remove(lease);
+
+        try
+        {
+            lease.getRawResource().close();
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.WARNING, "Failed to give a Redis connection back", e);
+        }
+    }
+
+    /**
+     * Get the number of leases not closed yet
+     *
+     * @return Active leases count
+     */
+    public int getActiveLeases()
+    {
+        return this.activeLeases.size();
+    }
+
+    /**
+     * Get the number of successful borrows
+     *
+     * @return Borrowed leases count
+     */
+    public long getBorrowedLeases()
+    {
+        return this.borrowedLeases.get();
+    }
+
+    /**
+     * Get the number of borrows without connection
+     *
+     * @return Failed borrows count
+     */
+    public long getFailedBorrows()
+    {
+        return this.failedBorrows.get();
+    }
+
+    /**
+     * Get the average time to borrow a connection in nanoseconds
+     *
+     * @return Average borrow latency
+     */
+    public long getAverageBorrowLatency()
+    {
+        long borrows = this.borrowedLeases.get() + this.failedBorrows.get();
+        return borrows == 0 ? 0L : this.totalBorrowLatency.get() / borrows;
+    }
+
+    /**
+     * Get the longest time to borrow a connection in nanoseconds
+     *
+     * @return Maximum borrow latency
+     */
+    public long getMaxBorrowLatency()
+    {
+        return this.maxBorrowLatency.get();
+    }
+
+    /**
+     * Get the number of leak reports
+     *
+     * @return Detected leaks count
+     */
+    public long getDetectedLeaks()
+    {
+        return this.detectedLeaks.get();
+    }
+}
@@ -0,0 +1,380 @@
+package net.samagames.api.redis;
+
+import org.bukkit.Bukkit;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class RedisWriteBehindQueue
+{
+    private static final long MAX_BACKOFF = 10000L;
+
+    private final RedisLeaseManager leaseManager;
+    private final Map<String, PendingWrite> pendingWrites;
+    private final AtomicInteger pendingKeys;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushInterval;
+    private final ScheduledExecutorService flusher;
+    private final ScheduledFuture<?> periodicFlush;
+    private final AtomicBoolean flushRequested;
+    private volatile boolean running;
+    private volatile long retryTime;
+    private int failedFlushes;
+
+    private final AtomicLong writtenKeys;
+    private final AtomicLong collapsedWrites;
+    private final AtomicLong overflowWrites;
+    private final AtomicLong droppedWrites;
+    private final AtomicLong flushes;
+
+    /**
+     * Constructor
+     *
+     * @param leaseManager Lease manager providing the connections
+     * @param capacity Maximum number of distinct pending keys, the
+     *                 writes of new keys above it are dropped. A
+     *                 flush is started without waiting for the next
+     *                 interval from half of it
+     * @param batchSize Maximum number of commands per pipeline
+     * @param flushInterval Time in milliseconds between two flushes,
+     *                      doubled after each failed flush
+     */
+    public RedisWriteBehindQueue(RedisLeaseManager leaseManager, int capacity, int batchSize, long flushInterval)
+    {
+        this.leaseManager = leaseManager;
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.pendingKeys = new AtomicInteger();
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.flushRequested = new AtomicBoolean();
+        this.running = true;
+
+        this.writtenKeys = new AtomicLong();
+        this.collapsedWrites = new AtomicLong();
+        this.overflowWrites = new AtomicLong();
+        this.droppedWrites = new AtomicLong();
+        this.flushes = new AtomicLong();
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "Redis write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.periodicFlush = this.flusher.scheduleWithFixedDelay(this::flushIfDue, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor with 10000 pending keys flushed every 100
+     * milliseconds by pipelines of 500 commands
+     *
+     * @param leaseManager Lease manager providing the connections
+     */
+    public RedisWriteBehindQueue(RedisLeaseManager leaseManager)
+    {
+        this(leaseManager, 10000, 500, 100L);
+    }
+
+    /**
+     * Queue a {@code SETEX} of a given key, a newer write to
+     * the same key replaces it if not flushed yet
+     *
+     * @param key Key
+     * @param seconds Time to live in seconds
+     * @param value Value
+     */
+    public void setex(String key, int seconds, String value)
+    {
+        this.write(key, new PendingWrite(value, seconds));
+    }
+
+    /**
+     * Queue a {@code SET} of a given key, a newer write to
+     * the same key replaces it if not flushed yet
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, String value)
+    {
+        this.write(key, new PendingWrite(value, 0));
+    }
+
+    /**
+     * Write every pending key now, even during the
+     * back-off following a failed flush
+     */
+    public synchronized void flush()
+    {
+        if (this.pendingWrites.isEmpty())
+            return;
+
+        List<String> keys = new ArrayList<>(this.batchSize);
+        List<PendingWrite> writes = new ArrayList<>(this.batchSize);
+        boolean failed = false;
+
+        // Keys given back by a failed batch wait for the next flush
+        for (String key : new ArrayList<>(this.pendingWrites.keySet()))
+        {
+            PendingWrite write = this.pendingWrites.remove(key);
+
+            if (write == null)
+                continue;
+
+            this.pendingKeys.decrementAndGet();
+            keys.add(key);
+            writes.add(write);
+
+            if (keys.size() >= this.batchSize)
+            {
+                failed |= !this.writeBatch(keys, writes);
+                keys.clear();
+                writes.clear();
+            }
+        }
+
+        if (!keys.isEmpty())
+            failed |= !this.writeBatch(keys, writes);
+
+        this.flushes.incrementAndGet();
+
+        if (failed)
+        {
+            // Redis is likely down, hammering it only delays its recovery
+            this.failedFlushes = Math.min(this.failedFlushes + 1, 16);
+            this.retryTime = System.currentTimeMillis() + Math.min(MAX_BACKOFF, this.flushInterval << this.failedFlushes);
+        }
+        else
+        {
+            this.failedFlushes = 0;
+            this.retryTime = 0L;
+        }
+    }
+
+    /**
+     * Stop the periodic flushes and write every pending
+     * key, to be called before shutting down. The keys
+     * written afterwards are still flushed in background.
+     */
+    public void drain()
+    {
+        this.running = false;
+        this.periodicFlush.cancel(false);
+
+        this.flush();
+
+        // Failed keys are given back to the buffer, retried once before giving up
+        if (!this.pendingWrites.isEmpty())
+            this.flush();
+
+        if (!this.pendingWrites.isEmpty())
+            Bukkit.getLogger().severe("Lost " + this.pendingWrites.size() + " Redis write(s) while draining: " + this.pendingWrites.keySet());
+    }
+
+    private void flushIfDue()
+    {
+        if (System.currentTimeMillis() >= this.retryTime)
+            this.flush();
+    }
+
+    private void write(String key, PendingWrite write)
+    {
+        // Replacing a pending write takes no room
+        if (this.pendingWrites.replace(key, write) != null)
+        {
+            this.collapsedWrites.incrementAndGet();
+            return;
+        }
+
+        int pending = this.pendingKeys.incrementAndGet();
+
+        if (pending > this.capacity)
+        {
+            this.pendingKeys.decrementAndGet();
+            this.droppedWrites.incrementAndGet();
+            return;
+        }
+
+        if (this.pendingWrites.put(key, write) != null)
+        {
+            // Queued by another thread in between
+            this.pendingKeys.decrementAndGet();
+            this.collapsedWrites.incrementAndGet();
+            return;
+        }
+
+        if (this.running && pending <= this.capacity / 2)
+            return;
+
+        // Never written on the caller, which is often the main thread
+        if (this.running)
+            this.overflowWrites.incrementAndGet();
+
+        if (this.flushRequested.compareAndSet(false, true))
+        {
+            boolean drained = !this.running;
+
+            this.flusher.execute(() ->
+            {
+                this.flushRequested.set(false);
+
+                // Nothing flushes after the drain, the back-off can't be waited
+                if (drained)
+                    this.flush();
+                else
+                    this.flushIfDue();
+            });
+        }
+    }
+
+    private boolean writeBatch(List<String> keys, List<PendingWrite> writes)
+    {
+        try (RedisLease lease = this.leaseManager.lease())
+        {
+            if (lease == null)
+                throw new IllegalStateException("No Redis connection available");
+
+            Pipeline pipeline = lease.getResource().pipelined();
+
+            for (int i = 0; i < keys.size(); i++)
+            {
+                PendingWrite write = writes.get(i);
+
+                if (write.seconds > 0)
+                    pipeline.setex(keys.get(i), write.seconds, write.value);
+                else
+                    pipeline.set(keys.get(i), write.value);
+            }
+
+            pipeline.sync();
+            this.writtenKeys.addAndGet(keys.size());
+
+            return true;
+        }
+        catch (Exception e)
+        {
+            Bukkit.getLogger().log(Level.SEVERE, "Failed to write " + keys.size() + " key(s) to Redis", e);
+
+            // Give the keys back unless a newer value was queued meanwhile or the buffer is full
+            for (int i = 0; i < keys.size(); i++)
+            {
+                if (this.pendingKeys.incrementAndGet() > this.capacity)
+                {
+                    this.pendingKeys.decrementAndGet();
+                    this.droppedWrites.incrementAndGet();
+                }
+                else if (this.pendingWrites.putIfAbsent(keys.get(i), writes.get(i)) != null)
+                {
+                    this.pendingKeys.decrementAndGet();
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Get the number of keys waiting to be written
+     *
+     * @return Pending keys count
+     */
+    public int getPendingKeys()
+    {
+        return this.pendingWrites.size();
+    }
+
+    /**
+     * Get the number of written keys
+     *
+     * @return Written keys count
+     */
+    public long getWrittenKeys()
+    {
+        return this.writtenKeys.get();
+    }
+
+    /**
+     * Get the number of writes replaced by a newer
+     * one before being flushed
+     *
+     * @return Collapsed writes count
+     */
+    public long getCollapsedWrites()
+    {
+        return this.collapsedWrites.get();
+    }
+
+    /**
+     * Get the number of writes above half of the
+     * capacity which started an early flush
+     *
+     * @return Overflow writes count
+     */
+    public long getOverflowWrites()
+    {
+        return this.overflowWrites.get();
+    }
+
+    /**
+     * Get the number of writes dropped as the
+     * pending keys reached the capacity
+     *
+     * @return Dropped writes count
+     */
+    public long getDroppedWrites()
+    {
+        return this.droppedWrites.get();
+    }
+
+    /**
+     * Get the number of flushes
+     *
+     * @return Flushes count
+     */
+    public long getFlushes()
+    {
+        return this.flushes.get();
+    }
+
+    private static class PendingWrite
+    {
+        private final String value;
+        private final int seconds;
+
+        PendingWrite(String value, int seconds)
+        {
+            this.value = value;
+            this.seconds = seconds;
+        }
+    }
+}
@@ -35,6 +35,28 @@ public interface IStatsManager
      */
     IPlayerStats getPlayerStats(UUID player);
 
+    /**
+     * Increase the statistics of several players for a given game,
+     * offline ones included, saved by the next {@link #finish()}.
+     * Used to give back the statistics of a server which stopped
+     * before saving them. Every applied entry is set back to 0 in
+     * the arrays.
+     *
+     * @param game Code name of the game
+     * @param players Players' UUID
+     * @param playedGames Played games to add, by player
+     * @param wins Wins to add, by player
+     * @param playedTime Played time to add, by player
+     * @param count Number of players to read from the arrays
+     *
+     * @return {@code true} if every entry was applied, the default
+     *         applies none so they are kept until a manager does
+     */
+    default boolean increaseStatistics(String game, UUID[] players, int[] playedGames, int[] wins, long[] playedTime, int count)
+    {
+        return count == 0;
+    }
+
     /**
      * Define if a game will be loaded at player join
      * @param game The game wanted
@@ -58,4 +80,18 @@ public interface IStatsManager
      * @return Leaderboard instance {@link Leaderboard}
      */
 	Leaderboard getLeaderboard(GamesNames game, String stat);
+
+    /**
+     * Get the in-memory ranking of a given stat. Implementations
+     * own the stats writes, so they must feed it: after each change
+     * of the stat, call {@link LeaderboardIndex#update(UUID, String, long)}
+     * with the new total, for example on the shared index given by
+     * {@link LeaderboardIndex#forStat(GamesNames, String)}
+     *
+     * @param game Select game
+     * @param stat Stat
+     *
+     * @return Ranking instance {@link LeaderboardIndex}
+     */
+    LeaderboardIndex getLeaderboardIndex(GamesNames game, String stat);
 }
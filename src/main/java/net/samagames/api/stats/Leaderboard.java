@@ -1,5 +1,10 @@
 package net.samagames.api.stats;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /*
  * This file is part of SamaGamesAPI.
  *
@@ -19,6 +24,7 @@ package net.samagames.api.stats;
 public class Leaderboard
 {
     private final PlayerStatData first, second, third;
+    private final List<PlayerStatData> entries;
 
     /**
      * Constructor
@@ -32,6 +38,20 @@ public class Leaderboard
         this.first = first;
         this.second = second;
         this.third = third;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(first, second, third)));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param entries Players into the leaderboard, best first
+     */
+    public Leaderboard(List<PlayerStatData> entries)
+    {
+        this.first = entries.size() > 0 ? entries.get(0) : null;
+        this.second = entries.size() > 1 ? entries.get(1) : null;
+        this.third = entries.size() > 2 ? entries.get(2) : null;
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
     }
 
     /**
@@ -64,6 +84,16 @@ public class Leaderboard
         return this.third;
     }
 
+    /**
+     * Get every player into the leaderboard
+     *
+     * @return Players, best first
+     */
+    public List<PlayerStatData> getEntries()
+    {
+        return this.entries;
+    }
+
     public static class PlayerStatData{
         private String name;
         private int score;
@@ -0,0 +1,283 @@
+package net.samagames.api.stats;
+
+import net.samagames.api.games.GamesNames;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.logging.Level;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LeaderboardCache
+{
+    private final BiFunction<GamesNames, String, Leaderboard> loader;
+    private final long ttl;
+    private final double jitter;
+    private final ExecutorService executor;
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits;
+    private final AtomicLong staleHits;
+    private final AtomicLong misses;
+    private final AtomicLong refreshes;
+    private final AtomicLong refreshFailures;
+
+    /**
+     * Constructor
+     *
+     * @param loader Function loading a leaderboard from the backend
+     * @param ttl Time in milliseconds after which a leaderboard
+     *            is refreshed in background
+     * @param jitter Part of the time to live randomly added or
+     *               removed, between 0 and 1
+     * @param threads Number of threads running the refreshes
+     */
+    public LeaderboardCache(BiFunction<GamesNames, String, Leaderboard> loader, long ttl, double jitter, int threads)
+    {
+        if (ttl <= 0)
+            throw new IllegalArgumentException("Time to live must be positive");
+
+        if (jitter < 0.0D || jitter > 1.0D)
+            throw new IllegalArgumentException("Jitter must be between 0 and 1");
+
+        AtomicInteger counter = new AtomicInteger();
+
+        this.loader = loader;
+        this.ttl = ttl;
+        this.jitter = jitter;
+        this.executor = Executors.newFixedThreadPool(threads, runnable ->
+        {
+            Thread thread = new Thread(runnable, "Leaderboard refresher #" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.entries = new ConcurrentHashMap<>();
+
+        this.hits = new AtomicLong();
+        this.staleHits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.refreshes = new AtomicLong();
+        this.refreshFailures = new AtomicLong();
+    }
+
+    /**
+     * Constructor of a cache refreshing the leaderboards of
+     * a given stats manager every minute, give or take 20%
+     *
+     * @param statsManager Stats manager
+     */
+    public LeaderboardCache(IStatsManager statsManager)
+    {
+        this(statsManager::getLeaderboard, 60 * 1000L, 0.2D, 2);
+    }
+
+    /**
+     * Get the last loaded leaderboard of a given stat, never
+     * waiting for the backend. An expired leaderboard is still
+     * returned while a single refresh runs in background.
+     *
+     * @param game Select game
+     * @param stat Stat
+     *
+     * @return Leaderboard instance, or {@code null} if its
+     *         first load is not finished
+     */
+    public Leaderboard get(GamesNames game, String stat)
+    {
+        Entry entry = this.entries.computeIfAbsent(key(game, stat), key -> new Entry(game, stat));
+        Leaderboard value = entry.value;
+        boolean expired = System.currentTimeMillis() >= entry.refreshAt;
+
+        if (value == null)
+            this.misses.incrementAndGet();
+        else if (expired)
+            this.staleHits.incrementAndGet();
+        else
+            this.hits.incrementAndGet();
+
+        if (expired)
+            this.refresh(entry);
+
+        return value;
+    }
+
+    /**
+     * Start loading the leaderboard of a given stat, so
+     * the first display already has it
+     *
+     * @param game Select game
+     * @param stat Stat
+     */
+    public void prefetch(GamesNames game, String stat)
+    {
+        this.refresh(this.entries.computeIfAbsent(key(game, stat), key -> new Entry(game, stat)));
+    }
+
+    /**
+     * Refresh the leaderboard of a given stat at its
+     * next read
+     *
+     * @param game Select game
+     * @param stat Stat
+     */
+    public void invalidate(GamesNames game, String stat)
+    {
+        Entry entry = this.entries.get(key(game, stat));
+
+        if (entry != null)
+            entry.refreshAt = 0L;
+    }
+
+    /**
+     * Stop the refreshing threads
+     */
+    public void shutdown()
+    {
+        this.executor.shutdownNow();
+    }
+
+    private void refresh(Entry entry)
+    {
+        // Only one refresh by leaderboard, the other readers keep the last value
+        if (!entry.refreshing.compareAndSet(false, true))
+            return;
+
+        try
+        {
+            this.executor.execute(() ->
+            {
+                try
+                {
+                    Leaderboard value = this.loader.apply(entry.game, entry.stat);
+
+                    if (value != null)
+                        entry.value = value;
+
+                    this.refreshes.incrementAndGet();
+                    entry.refreshAt = System.currentTimeMillis() + this.jitteredTtl(this.ttl);
+                }
+                catch (Exception e)
+                {
+                    Bukkit.getLogger().log(Level.WARNING, "Failed to refresh the leaderboard of " + entry.game + " " + entry.stat, e);
+
+                    // Retried sooner, the last value is still served meanwhile
+                    this.refreshFailures.incrementAndGet();
+                    entry.refreshAt = System.currentTimeMillis() + this.jitteredTtl(this.ttl / 4);
+                }
+                finally
+                {
+                    entry.refreshing.set(false);
+                }
+            });
+        }
+        catch (Exception e)
+        {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private long jitteredTtl(long ttl)
+    {
+        // Spread the refreshes of the keys loaded at the same time
+        double factor = 1.0D + this.jitter * (ThreadLocalRandom.current().nextDouble() * 2.0D - 1.0D);
+        return Math.max(1L, (long) (ttl * factor));
+    }
+
+    private static String key(GamesNames game, String stat)
+    {
+        return game.name() + ':' + stat;
+    }
+
+    /**
+     * Get the number of reads served by a fresh
+     * leaderboard
+     *
+     * @return Hits count
+     */
+    public long getHits()
+    {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of reads served by an expired
+     * leaderboard while it was refreshed
+     *
+     * @return Stale hits count
+     */
+    public long getStaleHits()
+    {
+        return this.staleHits.get();
+    }
+
+    /**
+     * Get the number of reads made before the first
+     * load of their leaderboard
+     *
+     * @return Misses count
+     */
+    public long getMisses()
+    {
+        return this.misses.get();
+    }
+
+    /**
+     * Get the number of leaderboards loaded from
+     * the backend
+     *
+     * @return Refreshes count
+     */
+    public long getRefreshes()
+    {
+        return this.refreshes.get();
+    }
+
+    /**
+     * Get the number of failed loads
+     *
+     * @return Failures count
+     */
+    public long getRefreshFailures()
+    {
+        return this.refreshFailures.get();
+    }
+
+    private static class Entry
+    {
+        private final GamesNames game;
+        private final String stat;
+        private final AtomicBoolean refreshing;
+        private volatile Leaderboard value;
+        private volatile long refreshAt;
+
+        Entry(GamesNames game, String stat)
+        {
+            this.game = game;
+            this.stat = stat;
+            this.refreshing = new AtomicBoolean();
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package net.samagames.api.stats;
+
+import net.samagames.api.games.GamesNames;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LeaderboardIndex
+{
+    private static final int MAX_LEVEL = 32;
+    private static final Map<String, LeaderboardIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+    private final long retention;
+    private final Node head;
+    private final Map<UUID, Node> nodes;
+    private int level;
+
+    /**
+     * Constructor
+     *
+     * @param maxSize Maximum number of ranked players, the lowest
+     *                scores are dropped above it
+     * @param retention Time in milliseconds after which a player not
+     *                  updated anymore is dropped, 0 to keep them
+     */
+    public LeaderboardIndex(int maxSize, long retention)
+    {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Maximum size must be positive");
+
+        this.maxSize = maxSize;
+        this.retention = retention;
+        this.head = new Node(null, null, 0L, 0L, MAX_LEVEL);
+        this.nodes = new LinkedHashMap<>();
+        this.level = 1;
+    }
+
+    /**
+     * Constructor of an index keeping the 10000 best
+     * players without retention
+     */
+    public LeaderboardIndex()
+    {
+        this(10000, 0L);
+    }
+
+    /**
+     * Set the score of a given player, moving him
+     * into the ranking
+     *
+     * @param player Player's UUID
+     * @param name Player's name
+     * @param score New score
+     */
+    public synchronized void update(UUID player, String name, long score)
+    {
+        long now = System.currentTimeMillis();
+        Node previous = this.nodes.remove(player);
+
+        if (previous != null)
+            this.delete(previous);
+
+        Node node = new Node(player, name, score, now, randomLevel());
+        this.insert(node);
+        this.nodes.put(player, node);
+
+        this.evict(now);
+    }
+
+    /**
+     * Remove a given player from the ranking
+     *
+     * @param player Player's UUID
+     */
+    public synchronized void remove(UUID player)
+    {
+        Node node = this.nodes.remove(player);
+
+        if (node != null)
+            this.delete(node);
+    }
+
+    /**
+     * Get the rank of a given player
+     *
+     * @param player Player's UUID
+     *
+     * @return Rank starting at 1, or 0 if not ranked
+     */
+    public synchronized int rank(UUID player)
+    {
+        Node node = this.nodes.get(player);
+        return node == null ? 0 : this.rankOf(node);
+    }
+
+    /**
+     * Get the entry of a given player
+     *
+     * @param player Player's UUID
+     *
+     * @return Entry, or {@code null} if not ranked
+     */
+    public synchronized Entry get(UUID player)
+    {
+        Node node = this.nodes.get(player);
+        return node == null ? null : new Entry(node, this.rankOf(node));
+    }
+
+    /**
+     * Get a page of the ranking
+     *
+     * @param offset Number of players to skip
+     * @param limit Maximum number of players
+     *
+     * @return Entries, best first
+     */
+    public synchronized List<Entry> top(int offset, int limit)
+    {
+        if (offset < 0 || limit <= 0 || offset >= this.nodes.size())
+            return Collections.emptyList();
+
+        List<Entry> entries = new ArrayList<>(Math.min(limit, this.nodes.size() - offset));
+        Node node = this.byRank(offset + 1);
+        int rank = offset + 1;
+
+        while (node != null && entries.size() < limit)
+        {
+            entries.add(new Entry(node, rank++));
+            node = node.next[0];
+        }
+
+        return entries;
+    }
+
+    /**
+     * Get the players ranked around a given player
+     *
+     * @param player Player's UUID
+     * @param radius Number of players to get before and after him
+     *
+     * @return Entries, best first, empty if the player is not ranked
+     */
+    public synchronized List<Entry> around(UUID player, int radius)
+    {
+        int rank = this.rank(player);
+
+        if (rank == 0)
+            return Collections.emptyList();
+
+        int first = Math.max(1, rank - radius);
+        return this.top(first - 1, rank + radius - first + 1);
+    }
+
+    /**
+     * Get the three best players as a {@link Leaderboard}
+     *
+     * @return Leaderboard instance
+     */
+    public Leaderboard toLeaderboard()
+    {
+        List<Leaderboard.PlayerStatData> data = new ArrayList<>(3);
+
+        for (Entry entry : this.top(0, 3))
+            data.add(new Leaderboard.PlayerStatData(entry.getName(), (int) Math.min(Integer.MAX_VALUE, entry.getScore())));
+
+        return new Leaderboard(data);
+    }
+
+    /**
+     * Get the number of ranked players
+     *
+     * @return Size
+     */
+    public synchronized int size()
+    {
+        return this.nodes.size();
+    }
+
+    private void evict(long now)
+    {
+        if (this.retention > 0)
+        {
+            Iterator<Node> iterator = this.nodes.values().iterator();
+
+            // Nodes are ordered by update time, the oldest first
+            while (iterator.hasNext())
+            {
+                Node node = iterator.next();
+
+                if (now - node.updatedAt < this.retention)
+                    break;
+
+                iterator.remove();
+                this.delete(node);
+            }
+        }
+
+        while (this.nodes.size() > this.maxSize)
+        {
+            Node last = this.byRank(this.nodes.size());
+            this.nodes.remove(last.player);
+            this.delete(last);
+        }
+    }
+
+    private void insert(Node node)
+    {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = this.head;
+
+        for (int i = this.level - 1; i >= 0; i--)
+        {
+            rank[i] = i == this.level - 1 ? 0 : rank[i + 1];
+
+            while (x.next[i] != null && x.next[i].before(node))
+            {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+
+            update[i] = x;
+        }
+
+        int nodeLevel = node.next.length;
+
+        if (nodeLevel > this.level)
+        {
+            for (int i = this.level; i < nodeLevel; i++)
+            {
+                rank[i] = 0;
+                update[i] = this.head;
+                update[i].span[i] = this.nodes.size();
+            }
+
+            this.level = nodeLevel;
+        }
+
+        for (int i = 0; i < nodeLevel; i++)
+        {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        for (int i = nodeLevel; i < this.level; i++)
+            update[i].span[i]++;
+    }
+
+    private void delete(Node node)
+    {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = this.head;
+
+        for (int i = this.level - 1; i >= 0; i--)
+        {
+            while (x.next[i] != null && x.next[i].before(node))
+                x = x.next[i];
+
+            update[i] = x;
+        }
+
+        for (int i = 0; i < this.level; i++)
+        {
+            if (update[i].next[i] == node)
+            {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            }
+            else
+            {
+                update[i].span[i]--;
+            }
+        }
+
+        while (this.level > 1 && this.head.next[this.level - 1] == null)
+            this.level--;
+    }
+
+    private int rankOf(Node node)
+    {
+        Node x = this.head;
+        int rank = 0;
+
+        for (int i = this.level - 1; i >= 0; i--)
+        {
+            while (x.next[i] != null && !node.before(x.next[i]))
+            {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+
+            if (x == node)
+                return rank;
+        }
+
+        return 0;
+    }
+
+    private Node byRank(int rank)
+    {
+        Node x = this.head;
+        int traversed = 0;
+
+        for (int i = this.level - 1; i >= 0; i--)
+        {
+            while (x.next[i] != null && traversed + x.span[i] <= rank)
+            {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+
+            if (traversed == rank)
+                return x;
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the shared ranking of a given stat, created
+     * on first call
+     *
+     * @param game Select game
+     * @param stat Stat
+     *
+     * @return Instance
+     */
+    public static LeaderboardIndex forStat(GamesNames game, String stat)
+    {
+        return INDEXES.computeIfAbsent(game.name() + ':' + stat, key -> new LeaderboardIndex());
+    }
+
+    private static int randomLevel()
+    {
+        int level = 1;
+
+        while (level < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0)
+            level++;
+
+        return level;
+    }
+
+    private static class Node
+    {
+        private final UUID player;
+        private final String name;
+        private final long score;
+        private final long updatedAt;
+        private final Node[] next;
+        private final int[] span;
+
+        Node(UUID player, String name, long score, long updatedAt, int level)
+        {
+            this.player = player;
+            this.name = name;
+            this.score = score;
+            this.updatedAt = updatedAt;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+
+        boolean before(Node other)
+        {
+            if (this.score != other.score)
+                return this.score > other.score;
+
+            // Same score, the first to reach it is ranked first
+            if (this.updatedAt != other.updatedAt)
+                return this.updatedAt < other.updatedAt;
+
+            return this.player.compareTo(other.player) < 0;
+        }
+    }
+
+    public static class Entry
+    {
+        private final UUID player;
+        private final String name;
+        private final long score;
+        private final int rank;
+
+        Entry(Node node, int rank)
+        {
+            this.player = node.player;
+            this.name = node.name;
+            this.score = node.score;
+            this.rank = rank;
+        }
+
+        public UUID getPlayer()
+        {
+            return this.player;
+        }
+
+        public String getName()
+        {
+            return this.name;
+        }
+
+        public long getScore()
+        {
+            return this.score;
+        }
+
+        public int getRank()
+        {
+            return this.rank;
+        }
+    }
+}
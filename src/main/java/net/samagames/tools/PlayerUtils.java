@@ -3,9 +3,13 @@ package net.samagames.tools;
 import net.samagames.api.SamaGamesAPI;
 import net.samagames.api.permissions.IPermissionsEntity;
 import net.samagames.api.player.AbstractPlayerData;
+import net.samagames.api.player.PlayerSessionBundle;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /*
@@ -36,8 +40,8 @@ public class PlayerUtils
      */
     public static String getFullyFormattedPlayerName(UUID uuid)
     {
-        AbstractPlayerData playerData = SamaGamesAPI.get().getPlayerManager().getPlayerData(uuid);
-        IPermissionsEntity playerPermissionEntity = SamaGamesAPI.get().getPermissionsManager().getPlayer(uuid);
+        AbstractPlayerData playerData = getPlayerData(uuid);
+        IPermissionsEntity playerPermissionEntity = getPermissions(uuid);
 
         return playerPermissionEntity.getDisplayPrefix() + playerPermissionEntity.getDisplayTag() + playerData.getDisplayName() + ChatColor.RESET;
     }
@@ -55,6 +59,28 @@ public class PlayerUtils
         return getFullyFormattedPlayerName(player.getUniqueId());
     }
 
+    /**
+     * Get the fully formatted names of several players,
+     * their data being fetched at once
+     *
+     * @param uuids Players' UUID
+     *
+     * @return Formatted names of the found players
+     */
+    public static Map<UUID, String> getFullyFormattedPlayerNames(Collection<UUID> uuids)
+    {
+        Map<UUID, AbstractPlayerData> playersData = SamaGamesAPI.get().getPlayerManager().getPlayerData(uuids);
+        Map<UUID, String> names = new HashMap<>(playersData.size() * 2);
+
+        playersData.forEach((uuid, playerData) ->
+        {
+            IPermissionsEntity playerPermissionEntity = getPermissions(uuid);
+            names.put(uuid, playerPermissionEntity.getDisplayPrefix() + playerPermissionEntity.getDisplayTag() + playerData.getDisplayName() + ChatColor.RESET);
+        });
+
+        return names;
+    }
+
     /**
      * Get a colored formatted player name
      *
@@ -64,8 +90,8 @@ public class PlayerUtils
      */
     public static String getColoredFormattedPlayerName(UUID uuid)
     {
-        AbstractPlayerData playerData = SamaGamesAPI.get().getPlayerManager().getPlayerData(uuid);
-        IPermissionsEntity playerPermissionEntity = SamaGamesAPI.get().getPermissionsManager().getPlayer(uuid);
+        AbstractPlayerData playerData = getPlayerData(uuid);
+        IPermissionsEntity playerPermissionEntity = getPermissions(uuid);
 
         return playerPermissionEntity.getDisplayPrefix() + playerData.getDisplayName() + ChatColor.RESET;
     }
@@ -81,4 +107,25 @@ public class PlayerUtils
     {
         return getColoredFormattedPlayerName(player.getUniqueId());
     }
+
+    private static AbstractPlayerData getPlayerData(UUID uuid)
+    {
+        PlayerSessionBundle bundle = SamaGamesAPI.get().getPlayerSessions().getIfLoaded(uuid);
+
+        // A part which failed to load is fetched by its manager
+        if (bundle != null && bundle.getPlayerData() != null)
+            return bundle.getPlayerData();
+
+        return SamaGamesAPI.get().getPlayerManager().getPlayerData(uuid);
+    }
+
+    private static IPermissionsEntity getPermissions(UUID uuid)
+    {
+        PlayerSessionBundle bundle = SamaGamesAPI.get().getPlayerSessions().getIfLoaded(uuid);
+
+        if (bundle != null && bundle.getPermissions() != null)
+            return bundle.getPermissions();
+
+        return SamaGamesAPI.get().getPermissionsManager().getPlayer(uuid);
+    }
 }
@@ -73,8 +73,7 @@ public class ProfileLoader {
                     {
                         jsonArray.add(new Gson().toJsonTree(property));
                     }
-                    jedis.set("cacheSkin:" + uuid, jsonArray.toString());
-                    jedis.expire("cacheSkin:" + uuid, 172800);//2 jours
+                    SamaGamesAPI.get().getRedisWriteBehind().setex("cacheSkin:" + uuid, 172800, jsonArray.toString());//2 jours
                 }
                 skinProfile.getProperties().putAll(profile.getProperties());
             }else
@@ -0,0 +1,351 @@
+package net.samagames.tools.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class DeltaJournal implements Closeable
+{
+    public static final byte COINS = 1;
+    public static final byte PLAYED_GAMES = 2;
+    public static final byte WINS = 3;
+    public static final byte PLAYED_TIME = 4;
+
+    private static final int MAGIC = 0x534A524E;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_KEY_LENGTH = Short.MAX_VALUE;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final CRC32 crc;
+    private final String game;
+    private MappedByteBuffer buffer;
+    private ByteBuffer scratch;
+    private int position;
+    private long appendedRecords;
+
+    /**
+     * Open or create a journal, the records left by a previous
+     * run are kept until {@link #clear()}, a journal of an older
+     * format is reset as its records don't tell their game
+     *
+     * @param path Journal's file
+     * @param game Code name of the game appending the records
+     * @param initialSize Size in bytes mapped at first, doubled when full
+     *
+     * @throws IOException If the file cannot be mapped
+     */
+    public DeltaJournal(File path, String game, int initialSize) throws IOException
+    {
+        this.file = new RandomAccessFile(path, "rw");
+        this.channel = this.file.getChannel();
+        this.crc = new CRC32();
+        this.game = game;
+        this.scratch = ByteBuffer.allocate(256);
+
+        int size = (int) Math.max(Math.max(initialSize, HEADER_SIZE + RECORD_HEADER_SIZE), this.channel.size());
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (this.buffer.getInt(0) != MAGIC || this.buffer.getInt(4) != VERSION)
+        {
+            this.buffer.putInt(0, MAGIC);
+            this.buffer.putInt(4, VERSION);
+            this.buffer.putInt(HEADER_SIZE, 0);
+        }
+
+        this.position = HEADER_SIZE;
+        this.replay(record -> {});
+    }
+
+    /**
+     * Open or create a journal of 1 MiB
+     *
+     * @param path Journal's file
+     * @param game Code name of the game appending the records
+     *
+     * @throws IOException If the file cannot be mapped
+     */
+    public DeltaJournal(File path, String game) throws IOException
+    {
+        this(path, game, 1024 * 1024);
+    }
+
+    /**
+     * Append a delta of the game owning the journal, written to
+     * the mapped memory only so it survives a crash of the process
+     * but not of the host
+     *
+     * @param type Delta's type
+     * @param player Player's UUID
+     * @param key Delta's key, a reason or a statistic
+     * @param value Delta's value
+     */
+    public void append(byte type, UUID player, String key, long value)
+    {
+        this.append(type, player, this.game, key, value);
+    }
+
+    /**
+     * Append a record read before, keeping its game, like
+     * the records of another game kept for its next start
+     *
+     * @param record Record
+     */
+    public void append(Record record)
+    {
+        this.append(record.getType(), record.getPlayer(), record.getGame(), record.getKey(), record.getValue());
+    }
+
+    private synchronized void append(byte type, UUID player, String game, String key, long value)
+    {
+        byte[] gameBytes = game == null ? new byte[0] : game.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key == null ? new byte[0] : key.getBytes(StandardCharsets.UTF_8);
+
+        if (gameBytes.length > MAX_KEY_LENGTH || keyBytes.length > MAX_KEY_LENGTH)
+            throw new IllegalArgumentException("Key is too long");
+
+        int payloadSize = 1 + 16 + 2 + gameBytes.length + 2 + keyBytes.length + 8;
+
+        if (this.scratch.capacity() < payloadSize)
+            this.scratch = ByteBuffer.allocate(Integer.highestOneBit(payloadSize) << 1);
+
+        this.scratch.clear();
+        this.scratch.put(type);
+        this.scratch.putLong(player.getMostSignificantBits());
+        this.scratch.putLong(player.getLeastSignificantBits());
+        this.scratch.putShort((short) gameBytes.length);
+        this.scratch.put(gameBytes);
+        this.scratch.putShort((short) keyBytes.length);
+        this.scratch.put(keyBytes);
+        this.scratch.putLong(value);
+
+        this.crc.reset();
+        this.crc.update(this.scratch.array(), 0, payloadSize);
+
+        int recordSize = RECORD_HEADER_SIZE + payloadSize;
+        this.ensureCapacity(this.position + recordSize + 4);
+
+        // The length is written last, a torn record reads as the end
+        this.buffer.position(this.position + RECORD_HEADER_SIZE);
+        this.buffer.put(this.scratch.array(), 0, payloadSize);
+        this.buffer.putInt(this.position + 4, (int) this.crc.getValue());
+        this.buffer.putInt(this.position + recordSize, 0);
+        this.buffer.putInt(this.position, payloadSize);
+
+        this.position += recordSize;
+        this.appendedRecords++;
+    }
+
+    /**
+     * Read every valid record, stopping at the first
+     * missing or corrupted one
+     *
+     * @param consumer Consumer of the records
+     *
+     * @return Number of records read
+     */
+    public synchronized int replay(Consumer<Record> consumer)
+    {
+        int offset = HEADER_SIZE;
+        int count = 0;
+
+        while (offset + RECORD_HEADER_SIZE <= this.buffer.capacity())
+        {
+            int payloadSize = this.buffer.getInt(offset);
+
+            if (payloadSize <= 0 || offset + RECORD_HEADER_SIZE + payloadSize > this.buffer.capacity())
+                break;
+
+            byte[] payload = new byte[payloadSize];
+            this.buffer.position(offset + RECORD_HEADER_SIZE);
+            this.buffer.get(payload);
+
+            this.crc.reset();
+            this.crc.update(payload, 0, payloadSize);
+
+            if ((int) this.crc.getValue() != this.buffer.getInt(offset + 4))
+                break;
+
+            ByteBuffer reader = ByteBuffer.wrap(payload);
+            byte type = reader.get();
+            UUID player = new UUID(reader.getLong(), reader.getLong());
+            byte[] gameBytes = new byte[reader.getShort()];
+            reader.get(gameBytes);
+            byte[] keyBytes = new byte[reader.getShort()];
+            reader.get(keyBytes);
+
+            consumer.accept(new Record(type, player, new String(gameBytes, StandardCharsets.UTF_8), new String(keyBytes, StandardCharsets.UTF_8), reader.getLong()));
+
+            offset += RECORD_HEADER_SIZE + payloadSize;
+            count++;
+        }
+
+        // Appends continue after the last valid record
+        this.position = offset;
+
+        if (offset + 4 <= this.buffer.capacity())
+            this.buffer.putInt(offset, 0);
+
+        return count;
+    }
+
+    /**
+     * Read every valid record
+     *
+     * @return Records, in appending order
+     */
+    public List<Record> readAll()
+    {
+        List<Record> records = new ArrayList<>();
+        this.replay(records::add);
+
+        return records;
+    }
+
+    /**
+     * Forget every record, to be called once the deltas
+     * are persisted
+     */
+    public synchronized void clear()
+    {
+        this.buffer.putInt(HEADER_SIZE, 0);
+        this.position = HEADER_SIZE;
+        this.buffer.force();
+    }
+
+    /**
+     * Write the mapped memory to the disk and
+     * close the file
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        this.buffer.force();
+        this.channel.close();
+        this.file.close();
+    }
+
+    /**
+     * Get the code name of the game appending the records
+     *
+     * @return Code name
+     */
+    public String getGame()
+    {
+        return this.game;
+    }
+
+    /**
+     * Get the number of bytes used by the records
+     *
+     * @return Size in bytes
+     */
+    public synchronized int getUsedBytes()
+    {
+        return this.position - HEADER_SIZE;
+    }
+
+    /**
+     * Get the number of records appended since
+     * the journal was opened
+     *
+     * @return Records count
+     */
+    public synchronized long getAppendedRecords()
+    {
+        return this.appendedRecords;
+    }
+
+    private void ensureCapacity(int required)
+    {
+        if (required <= this.buffer.capacity())
+            return;
+
+        int size = this.buffer.capacity();
+
+        while (size < required)
+            size *= 2;
+
+        try
+        {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Failed to grow the journal to " + size + " bytes", e);
+        }
+    }
+
+    public static class Record
+    {
+        private final byte type;
+        private final UUID player;
+        private final String game;
+        private final String key;
+        private final long value;
+
+        public Record(byte type, UUID player, String game, String key, long value)
+        {
+            this.type = type;
+            this.player = player;
+            this.game = game;
+            this.key = key;
+            this.value = value;
+        }
+
+        public byte getType()
+        {
+            return this.type;
+        }
+
+        public UUID getPlayer()
+        {
+            return this.player;
+        }
+
+        public String getGame()
+        {
+            return this.game;
+        }
+
+        public String getKey()
+        {
+            return this.key;
+        }
+
+        public long getValue()
+        {
+            return this.value;
+        }
+    }
+}
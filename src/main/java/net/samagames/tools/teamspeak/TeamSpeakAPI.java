@@ -1,14 +1,15 @@
 package net.samagames.tools.teamspeak;
 
 import net.samagames.api.SamaGamesAPI;
-import net.samagames.api.pubsub.IPacketsReceiver;
-import org.apache.commons.lang3.tuple.MutablePair;
-import redis.clients.jedis.Jedis;
+import net.samagames.api.pubsub.HashedWheelTimer;
+import net.samagames.api.pubsub.PubSubRequester;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.logging.Level;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /*
  * This file is part of SamaGamesAPI.
@@ -30,8 +31,7 @@ import java.util.logging.Level;
 public class TeamSpeakAPI
 {
     private static final int TIMEOUT = 20000;
-    private static int generator = 0;
-    private static Map<Integer, MutablePair<ResultType, Object>> results = new HashMap<>();
+    private static final PubSubRequester requester;
 
     private TeamSpeakAPI()
     {
@@ -39,143 +39,93 @@ public class TeamSpeakAPI
 
     static
     {
-        SamaGamesAPI.get().getPubSub().subscribe("tsbotresponse", new TeamSpeakConsumer());
+        requester = new PubSubRequester(SamaGamesAPI.get().getPubSub(), "tsbot", "tsbotresponse", SamaGamesAPI.get().getServerName(), TIMEOUT, new HashedWheelTimer(250L, TimeUnit.MILLISECONDS, 128));
     }
 
-    private static void publish(int id, String string)
+    public static CompletableFuture<Integer> createChannelAsync(@Nonnull String name, @Nullable Map<ChannelProperty, String> channelProperties, @Nullable Map<ChannelPermission, Integer> permissions)
     {
-        Jedis jedis = null;
-        try
-        {
-            jedis = SamaGamesAPI.get().getBungeeResource();
-            if (jedis != null)
-                jedis.publish("tsbot", SamaGamesAPI.get().getServerName() + "/" + id + ":" + string);
-        }
-        catch (Exception exception)
-        {
-            SamaGamesAPI.get().getPlugin().getLogger().log(Level.SEVERE, "Jedis error", exception);
-        }
-        finally
+        StringBuilder msg = new StringBuilder("createchannel:").append(name);
+        if (channelProperties != null)
+            channelProperties.forEach((channelProperty, s) -> msg.append(':').append(channelProperty.toString().toUpperCase()).append('=').append(s));
+        if (permissions != null)
+            permissions.forEach((channelPermission, integer) -> msg.append(':').append(channelPermission.toString().toLowerCase()).append('-').append(integer));
+        return TeamSpeakAPI.request(msg.toString(), args -> Integer.parseInt(args[0]), -1);
+    }
+
+    public static CompletableFuture<Boolean> deleteChannelAsync(int channelId)
+    {
+        return TeamSpeakAPI.request("deletechannel:" + channelId, TeamSpeakAPI::parseBoolean, false);
+    }
+
+    public static CompletableFuture<List<UUID>> movePlayersAsync(@Nonnull List<UUID> uuids, int channelId)
+    {
+        StringBuilder msg = new StringBuilder("move:").append(channelId);
+        uuids.forEach(uuid -> msg.append(':').append(uuid));
+        return TeamSpeakAPI.request(msg.toString(), args ->
         {
-            if (jedis != null)
-                jedis.close();
-        }
+            List<UUID> moved = new ArrayList<>(args.length);
+            for (String arg : args)
+                moved.add(UUID.fromString(arg));
+            return moved;
+        }, new ArrayList<>());
+    }
+
+    public static CompletableFuture<Boolean> isLinkedAsync(@Nonnull UUID uuid)
+    {
+        return TeamSpeakAPI.request("linked:" + uuid, TeamSpeakAPI::parseBoolean, false);
     }
 
     public static int createChannel(@Nonnull String name, @Nullable Map<ChannelProperty, String> channelProperties, @Nullable Map<ChannelPermission, Integer> permissions)
     {
-        MutablePair<ResultType, Object> pair = MutablePair.of(ResultType.INTEGER, -1);
-        int id = generator++;
-        TeamSpeakAPI.results.put(id, pair);
-        final String[] msg = {"createchannel:" + name};
-        if (channelProperties != null)
-            channelProperties.forEach(((channelProperty, s) -> msg[0] += ":" + channelProperties.toString().toUpperCase() + "=" + s));
-        if (permissions != null)
-            permissions.forEach(((channelPermission, integer) -> msg[0] += ":" + channelPermission.toString().toLowerCase() + "-" + integer));
-        TeamSpeakAPI.publish(id, msg[0]);
-        try
-        {
-            synchronized (pair)
-            {
-                pair.wait(TeamSpeakAPI.TIMEOUT);
-            }
-        } catch (Exception ignored) {}
-        return (int)pair.getRight();
+        return TeamSpeakAPI.createChannelAsync(name, channelProperties, permissions).join();
     }
 
     public static boolean deleteChannel(int channelId)
     {
-        MutablePair<ResultType, Object> pair = MutablePair.of(ResultType.BOOLEAN, false);
-        int id = generator++;
-        TeamSpeakAPI.results.put(id, pair);
-        TeamSpeakAPI.publish(id, "deletechannel:" + channelId);
-        try
-        {
-           synchronized (pair)
-           {
-               pair.wait(TeamSpeakAPI.TIMEOUT);
-           }
-        } catch (Exception ignored) {}
-        return (boolean)pair.getRight();
+        return TeamSpeakAPI.deleteChannelAsync(channelId).join();
     }
 
     public static List<UUID> movePlayers(@Nonnull List<UUID> uuids, int channelId)
     {
-        MutablePair<ResultType, Object> pair = MutablePair.of(ResultType.UUID_LIST, new ArrayList<>());
-        int id = generator++;
-        TeamSpeakAPI.results.put(id, pair);
-        final String[] msg = {"move:" + channelId};
-        uuids.forEach(uuid -> msg[0] += ":" + uuid);
-        TeamSpeakAPI.publish(id, msg[0]);
-        try
-        {
-            synchronized (pair)
-            {
-                pair.wait(TeamSpeakAPI.TIMEOUT);
-            }
-        } catch (Exception ignored) {}
-        return (List<UUID>) pair.getRight();
+        return TeamSpeakAPI.movePlayersAsync(uuids, channelId).join();
     }
 
     public static boolean isLinked(@Nonnull UUID uuid)
     {
-        MutablePair<ResultType, Object> pair = MutablePair.of(ResultType.BOOLEAN, false);
-        int id = generator++;
-        TeamSpeakAPI.results.put(id, pair);
-        TeamSpeakAPI.publish(id, "linked:" + uuid);
-        try
-        {
-            synchronized (pair)
-            {
-                pair.wait(TeamSpeakAPI.TIMEOUT);
-            }
-        } catch (Exception ignored) {}
-        return (boolean)pair.getRight();
+        return TeamSpeakAPI.isLinkedAsync(uuid).join();
     }
 
-    private static class TeamSpeakConsumer implements IPacketsReceiver
+    private static <T> CompletableFuture<T> request(String body, Function<String[], T> parser, T defaultValue)
     {
-        @Override
-        public void receive(String channel, String packet)
+        return TeamSpeakAPI.requester.request(body).handle((reply, throwable) ->
         {
-            String[] args = packet.split(":");
-            String[] prefix = args[0].split("/");
-            if (!prefix[0].equals(SamaGamesAPI.get().getServerName()))
-                return ;
-            int id = Integer.parseInt(prefix[1]);
-            MutablePair<ResultType, Object> result = TeamSpeakAPI.results.get(id);
-            TeamSpeakAPI.results.remove(id);
-            boolean ok = args.length > 1 && !args[1].equals("ERROR");
-            if (!ok)
-                SamaGamesAPI.get().getPlugin().getLogger().severe("[TeamSpeakAPI] Error : " + (args.length > 2 ? args[2] : "Unknown") + "(packet = " + packet + ")");
-            else
-                switch (result.getLeft())
-                {
-                    case UUID_LIST:
-                        List<UUID> uuid = (List<UUID>) result.getRight();
-                        for (int i = 1; i < args.length; i++)
-                            uuid.add(UUID.fromString(args[i]));
-                        break;
-                    case INTEGER:
-                        result.setRight(Integer.parseInt(args[1]));
-                        break;
-                    case BOOLEAN:
-                        result.setRight(args[1].equalsIgnoreCase("OK") || args[1].equalsIgnoreCase("true"));
-                        break ;
-                    default:
-                        break ;
-                }
-            synchronized (result)
+            if (throwable != null)
+            {
+                SamaGamesAPI.get().getPlugin().getLogger().severe("[TeamSpeakAPI] Error : " + throwable.getMessage() + " (request = " + body + ")");
+                return defaultValue;
+            }
+
+            String[] args = reply.split(":");
+            if (reply.isEmpty() || args[0].equals("ERROR"))
+            {
+                SamaGamesAPI.get().getPlugin().getLogger().severe("[TeamSpeakAPI] Error : " + (args.length > 1 ? args[1] : "Unknown") + "(reply = " + reply + ")");
+                return defaultValue;
+            }
+
+            try
+            {
+                return parser.apply(args);
+            }
+            catch (Exception exception)
             {
-                result.notifyAll();
+                SamaGamesAPI.get().getPlugin().getLogger().severe("[TeamSpeakAPI] Malformed reply : " + reply);
+                return defaultValue;
             }
-        }
+        });
     }
 
-    private enum ResultType
+    private static boolean parseBoolean(String[] args)
     {
-        UUID_LIST,
-        BOOLEAN,
-        INTEGER
+        return args[0].equalsIgnoreCase("OK") || args[0].equalsIgnoreCase("true");
     }
 }
@@ -0,0 +1,157 @@
+package net.samagames.api.achievements;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementProgressFlusherTest
+{
+    private static final UUID PLAYER = UUID.fromString("7c2e4b91-5d0a-4f6e-a1b3-9e8d2c4f7a65");
+
+    private AchievementProgressStore store;
+    private RecordingWriter writer;
+    private AchievementProgressFlusher flusher;
+    private int nextId;
+
+    @Before
+    public void setUp()
+    {
+        this.store = new AchievementProgressStore();
+        this.writer = new RecordingWriter();
+        this.flusher = new AchievementProgressFlusher(this.store, this.writer, 2);
+        this.nextId = 0;
+    }
+
+    @Test
+    public void insertsNewProgressesThenUpdatesThem()
+    {
+        int ordinal = this.register();
+
+        this.store.increment(PLAYER, ordinal, 1, 10);
+
+        assertEquals(1, this.flusher.flush());
+        assertEquals(1, this.writer.inserts.size());
+        assertEquals(-1L, this.writer.inserts.get(0).get(0).getProgressId());
+        assertEquals(1000L, this.store.getRecord(PLAYER).getProgressId(ordinal));
+
+        this.store.increment(PLAYER, ordinal, 2, 10);
+
+        assertEquals(1, this.flusher.flush());
+        assertEquals(1, this.writer.updates.size());
+        assertEquals(1000L, this.writer.updates.get(0).get(0).getProgressId());
+        assertEquals(3, this.writer.updates.get(0).get(0).getProgress());
+
+        assertEquals(1L, this.flusher.getInsertedRows());
+        assertEquals(1L, this.flusher.getUpdatedRows());
+    }
+
+    @Test
+    public void writesEachChangedProgressOnce()
+    {
+        int ordinal = this.register();
+
+        for (int i = 0; i < 5; i++)
+            this.store.increment(PLAYER, ordinal, 1, 10);
+
+        assertEquals(1, this.flusher.flush());
+        assertEquals(5, this.writer.inserts.get(0).get(0).getProgress());
+
+        assertEquals(0, this.flusher.flush());
+        assertEquals(1, this.writer.inserts.size());
+        assertTrue(this.writer.updates.isEmpty());
+    }
+
+    @Test
+    public void sendsTheRowsByBatches()
+    {
+        int ordinal = this.register();
+
+        for (int i = 0; i < 5; i++)
+            this.store.unlock(new UUID(0L, i), ordinal);
+
+        assertEquals(5, this.flusher.flush());
+        assertEquals(3, this.writer.inserts.size());
+        assertEquals(2, this.writer.inserts.get(0).size());
+        assertEquals(2, this.writer.inserts.get(1).size());
+        assertEquals(1, this.writer.inserts.get(2).size());
+    }
+
+    @Test
+    public void ignoresTheLoadedProgresses()
+    {
+        int ordinal = this.register();
+
+        this.store.load(PLAYER, ordinal, 42L, 3, 1000L, 0L);
+
+        assertEquals(0, this.flusher.flush());
+        assertEquals(0L, this.flusher.getFlushes());
+    }
+
+    @Test
+    public void writesTheChangesOfARemovedProgressBeforeForgettingIt()
+    {
+        int ordinal = this.register();
+
+        this.store.increment(PLAYER, ordinal, 4, 10);
+        this.store.remove(PLAYER, ordinal);
+
+        assertEquals(4, this.store.getProgress(PLAYER, ordinal));
+
+        assertEquals(1, this.flusher.flush());
+        assertEquals(4, this.writer.inserts.get(0).get(0).getProgress());
+        assertNull(this.store.getRecord(PLAYER));
+    }
+
+    private int register()
+    {
+        return this.store.register(new Achievement(300000 + this.nextId++, "Achievement", null, new String[0]));
+    }
+
+    private static class RecordingWriter implements IAchievementProgressWriter
+    {
+        private final List<List<ProgressRow>> inserts = new ArrayList<>();
+        private final List<List<ProgressRow>> updates = new ArrayList<>();
+        private long nextId = 1000L;
+
+        @Override
+        public long[] insert(List<ProgressRow> rows)
+        {
+            long[] ids = new long[rows.size()];
+
+            for (int i = 0; i < ids.length; i++)
+                ids[i] = this.nextId++;
+
+            this.inserts.add(new ArrayList<>(rows));
+            return ids;
+        }
+
+        @Override
+        public void update(List<ProgressRow> rows)
+        {
+            this.updates.add(new ArrayList<>(rows));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package net.samagames.api.achievements;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementProgressStoreTest
+{
+    private static final UUID PLAYER = UUID.fromString("0e6f5c3a-93d4-4c1f-8b7e-2a5d9f4c6b18");
+
+    private AchievementProgressStore store;
+    private int nextId;
+
+    @Before
+    public void setUp()
+    {
+        this.store = new AchievementProgressStore();
+        this.nextId = 0;
+    }
+
+    @Test
+    public void keepsTheWritesMadeWhileTheRecordGrows() throws InterruptedException
+    {
+        int counter = this.register();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Integer> registered = new ArrayList<>();
+
+        for (int thread = 0; thread < 7; thread++)
+        {
+            executor.execute(() ->
+            {
+                await(start);
+
+                for (int i = 0; i < 20000; i++)
+                    this.store.increment(PLAYER, counter, 1, Integer.MAX_VALUE);
+            });
+        }
+
+        executor.execute(() ->
+        {
+            await(start);
+
+            // Each new achievement makes the next write grow the record
+            for (int i = 0; i < 200; i++)
+            {
+                int ordinal = this.register();
+
+                this.store.unlock(PLAYER, ordinal);
+                registered.add(ordinal);
+            }
+        });
+
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(30L, TimeUnit.SECONDS));
+        assertEquals(7 * 20000, this.store.getProgress(PLAYER, counter));
+
+        for (int ordinal : registered)
+            assertTrue(this.store.isUnlocked(PLAYER, ordinal));
+    }
+
+    @Test
+    public void dropsTheRecordOnceEmpty()
+    {
+        int first = this.register();
+        int second = this.register();
+
+        this.store.load(PLAYER, first, 1L, 3, 1000L, 0L);
+        this.store.load(PLAYER, second, 2L, 1, 1000L, 2000L);
+
+        this.store.remove(PLAYER, first);
+        assertNotNull(this.store.getRecord(PLAYER));
+
+        this.store.remove(PLAYER, second);
+        assertNull(this.store.getRecord(PLAYER));
+        assertFalse(this.store.isUnlocked(PLAYER, second));
+    }
+
+    @Test
+    public void keepsTheRecordWithChangesToFlush()
+    {
+        int first = this.register();
+        int second = this.register();
+
+        this.store.increment(PLAYER, first, 1, 10);
+        this.store.load(PLAYER, second, 2L, 1, 1000L, 0L);
+        this.store.remove(PLAYER, second);
+
+        assertNotNull(this.store.getRecord(PLAYER));
+        assertEquals(1, this.store.getProgress(PLAYER, first));
+    }
+
+    @Test
+    public void startsAgainAfterTheRecordIsDropped()
+    {
+        int ordinal = this.register();
+
+        this.store.increment(PLAYER, ordinal, 5, 10);
+        this.store.removePlayer(PLAYER);
+
+        assertNull(this.store.getRecord(PLAYER));
+        assertTrue(this.store.unlock(PLAYER, ordinal));
+        assertEquals(1, this.store.getProgress(PLAYER, ordinal));
+    }
+
+    private int register()
+    {
+        return this.store.register(new Achievement(100000 + this.nextId++, "Achievement", null, new String[0]));
+    }
+
+    private static void await(CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
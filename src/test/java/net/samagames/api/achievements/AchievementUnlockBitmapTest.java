@@ -0,0 +1,168 @@
+package net.samagames.api.achievements;
+
+import net.samagames.api.pubsub.PacketBuffer;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class AchievementUnlockBitmapTest
+{
+    private static int nextId = 500000;
+
+    private AchievementProgressStore store;
+    private UUID player;
+
+    @Before
+    public void setUp()
+    {
+        // Achievements always take their ordinal in the shared store
+        this.store = AchievementProgressStore.get();
+        this.player = UUID.randomUUID();
+    }
+
+    @Test
+    public void roundTripsThroughTheIds()
+    {
+        Achievement first = achievement(null);
+        Achievement second = achievement(null);
+        Achievement third = achievement(null);
+
+        this.store.unlock(this.player, first.getOrdinal());
+        this.store.unlock(this.player, third.getOrdinal());
+
+        byte[] bytes = this.store.getUnlockBitmap(this.player).toBytes();
+        AchievementUnlockBitmap bitmap = AchievementUnlockBitmap.fromBytes(this.store, bytes);
+
+        assertTrue(bitmap.isUnlocked(first));
+        assertFalse(bitmap.isUnlocked(second));
+        assertTrue(bitmap.isUnlocked(third));
+        assertEquals(2, bitmap.count());
+    }
+
+    @Test
+    public void readsTheIdsWhateverTheOrdinals()
+    {
+        Achievement first = achievement(null);
+        Achievement second = achievement(null);
+        int unknown = second.getID() + 100;
+
+        // Written by a server having no achievement but the second and an unknown one
+        PacketBuffer buffer = new PacketBuffer(16);
+        buffer.writeByte(2);
+        buffer.writeVarInt(2);
+        buffer.writeVarInt(second.getID());
+        buffer.writeVarInt(unknown - second.getID());
+
+        AchievementUnlockBitmap bitmap = AchievementUnlockBitmap.fromBytes(this.store, buffer.toByteArray());
+
+        assertFalse(bitmap.isUnlocked(first));
+        assertTrue(bitmap.isUnlocked(second));
+        assertEquals(1, bitmap.count());
+    }
+
+    @Test
+    public void countsByCategory()
+    {
+        AchievementCategory kills = new AchievementCategory(1, "Kills", (ItemStack) null, new String[0], null);
+        AchievementCategory wins = new AchievementCategory(2, "Wins", (ItemStack) null, new String[0], null);
+
+        Achievement firstKill = achievement(kills);
+        Achievement tenKills = achievement(kills);
+        Achievement firstWin = achievement(wins);
+
+        this.store.unlock(this.player, firstKill.getOrdinal());
+        this.store.unlock(this.player, tenKills.getOrdinal());
+        this.store.unlock(this.player, firstWin.getOrdinal());
+
+        AchievementUnlockBitmap bitmap = this.store.getUnlockBitmap(this.player);
+
+        assertEquals(2, bitmap.count(kills));
+        assertEquals(1, bitmap.count(wins));
+        assertEquals(3, bitmap.count());
+    }
+
+    @Test
+    public void keepsTheBytesSmallWhateverTheIds()
+    {
+        Achievement first = achievement(null);
+        Achievement second = achievement(null);
+
+        this.store.unlock(this.player, second.getOrdinal());
+        this.store.unlock(this.player, first.getOrdinal());
+
+        byte[] bytes = this.store.getUnlockBitmap(this.player).toBytes();
+        AchievementUnlockBitmap bitmap = AchievementUnlockBitmap.fromBytes(this.store, bytes);
+
+        assertTrue(bytes.length <= 8);
+        assertTrue(bitmap.isUnlocked(first));
+        assertTrue(bitmap.isUnlocked(second));
+        assertEquals(2, bitmap.count());
+    }
+
+    @Test
+    public void givesTheOrdinalsInAscendingOrder()
+    {
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 130; i++)
+        {
+            Achievement achievement = achievement(null);
+
+            if (i % 3 == 0)
+            {
+                this.store.unlock(this.player, achievement.getOrdinal());
+                expected.add(achievement.getOrdinal());
+            }
+        }
+
+        List<Integer> ordinals = new ArrayList<>();
+        this.store.getUnlockBitmap(this.player).forEachOrdinal(ordinals::add);
+
+        assertEquals(expected, ordinals);
+    }
+
+    @Test
+    public void isEmptyForAnUnknownPlayer()
+    {
+        AchievementUnlockBitmap bitmap = this.store.getUnlockBitmap(UUID.randomUUID());
+
+        assertEquals(0, bitmap.count());
+        assertTrue(Arrays.equals(new byte[] { 2, 0 }, bitmap.toBytes()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAnUnknownVersion()
+    {
+        AchievementUnlockBitmap.fromBytes(this.store, new byte[] { 1, 0, 0 });
+    }
+
+    private static Achievement achievement(AchievementCategory category)
+    {
+        return new Achievement(nextId++, "Achievement", category, new String[0]);
+    }
+}
@@ -0,0 +1,103 @@
+package net.samagames.api.player;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LocalCurrencyBackendTest
+{
+    private static final UUID PLAYER = UUID.fromString("5b1d2a7e-2f53-4b43-9a3e-6f0b9c7d1e24");
+
+    private LocalCurrencyBackend backend;
+
+    @Before
+    public void setUp()
+    {
+        this.backend = new LocalCurrencyBackend();
+    }
+
+    @Test
+    public void neverSpendsTheSameCoinsTwice() throws InterruptedException
+    {
+        this.backend.setBalance(PLAYER, CurrencyType.COINS, 1000L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+
+        for (int i = 0; i < 5000; i++)
+        {
+            executor.execute(() ->
+            {
+                try
+                {
+                    start.await();
+                }
+                catch (InterruptedException ignored)
+                {
+                    return;
+                }
+
+                if (this.backend.tryWithdraw(PLAYER, CurrencyType.COINS, 3L).isSuccess())
+                    successes.incrementAndGet();
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10L, TimeUnit.SECONDS));
+        assertEquals(333, successes.get());
+        assertEquals(1L, this.backend.getBalance(PLAYER, CurrencyType.COINS));
+    }
+
+    @Test
+    public void refusesWithdrawalsAboveTheBalance()
+    {
+        this.backend.setBalance(PLAYER, CurrencyType.POWDERS, 5L);
+
+        WithdrawResult result = this.backend.tryWithdraw(PLAYER, CurrencyType.POWDERS, 6L);
+
+        assertFalse(result.isSuccess());
+        assertEquals(5L, result.getBalance());
+        assertEquals(0L, this.backend.getBalance(PLAYER, CurrencyType.COINS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeWithdrawals()
+    {
+        this.backend.tryWithdraw(PLAYER, CurrencyType.COINS, -10L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeCredits()
+    {
+        this.backend.credit(PLAYER, CurrencyType.COINS, -10L);
+    }
+}
@@ -0,0 +1,160 @@
+package net.samagames.api.pubsub;
+
+import org.junit.Before;
+import org.junit.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class BatchingSenderTest
+{
+    private List<String> published;
+    private BatchingSender sender;
+
+    @Before
+    public void setUp()
+    {
+        this.published = Collections.synchronizedList(new ArrayList<>());
+
+        // A long flush window keeps every message in one batch until the shutdown
+        this.sender = new BatchingSender(RecordingJedis.supplier(this.published), 1024, 1024, 60000L);
+    }
+
+    @Test
+    public void sendsOnlyTheNewestMessageOfEachKey()
+    {
+        AtomicInteger callbacks = new AtomicInteger();
+        this.sender.setConflating("positions", message -> message.substring(0, message.indexOf(':')));
+
+        this.sender.publish(new PendingMessage("positions", "alice:1", callbacks::incrementAndGet));
+        this.sender.publish(new PendingMessage("positions", "bob:1", callbacks::incrementAndGet));
+        this.sender.publish(new PendingMessage("positions", "alice:2", callbacks::incrementAndGet));
+        this.sender.publish(new PendingMessage("positions", "alice:3", callbacks::incrementAndGet));
+        this.sender.shutdown();
+
+        List<String> sorted = new ArrayList<>(this.published);
+        Collections.sort(sorted);
+
+        assertEquals(Arrays.asList("positions alice:3", "positions bob:1"), sorted);
+        assertEquals(2, this.sender.getSupersededMessages());
+        assertEquals(4, callbacks.get());
+    }
+
+    @Test
+    public void keepsEveryMessageOfOtherChannelsInOrder()
+    {
+        this.sender.setConflating("state");
+
+        this.sender.publish(new PendingMessage("chat", "1"));
+        this.sender.publish(new PendingMessage("state", "old"));
+        this.sender.publish(new PendingMessage("chat", "2"));
+        this.sender.publish(new PendingMessage("state", "new"));
+        this.sender.publish(new PendingMessage("chat", "3"));
+        this.sender.shutdown();
+
+        List<String> chat = new ArrayList<>();
+
+        for (String message : this.published)
+            if (message.startsWith("chat "))
+                chat.add(message);
+
+        assertEquals(Arrays.asList("chat 1", "chat 2", "chat 3"), chat);
+        assertEquals(4, this.published.size());
+        assertTrue(this.published.contains("state new"));
+    }
+
+    @Test
+    public void stopsConflatingRemovedChannels()
+    {
+        this.sender.setConflating("state");
+        this.sender.removeConflating("state");
+
+        this.sender.publish(new PendingMessage("state", "1"));
+        this.sender.publish(new PendingMessage("state", "2"));
+        this.sender.shutdown();
+
+        assertEquals(Arrays.asList("state 1", "state 2"), this.published);
+    }
+
+    @Test
+    public void rejectsTheMessagesPublishedAfterTheShutdown()
+    {
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger callbacks = new AtomicInteger();
+
+        this.sender.setConflating("state");
+        this.sender.shutdown();
+
+        this.sender.publish(new PendingMessage("chat", "1", callbacks::incrementAndGet, failures::add));
+        this.sender.publish(new PendingMessage("state", "1", callbacks::incrementAndGet, failures::add));
+
+        // Never written on the calling thread
+        assertEquals(0, this.published.size());
+        assertEquals(0, callbacks.get());
+        assertEquals(2, failures.size());
+        assertTrue(failures.get(0) instanceof RejectedExecutionException);
+        assertEquals(2, this.sender.getRejectedMessages());
+    }
+
+    private static class RecordingJedis extends Jedis
+    {
+        private final List<String> published;
+
+        RecordingJedis(List<String> published)
+        {
+            this.published = published;
+        }
+
+        static Supplier<Jedis> supplier(List<String> published)
+        {
+            return () -> new RecordingJedis(published);
+        }
+
+        @Override
+        public Pipeline pipelined()
+        {
+            return new Pipeline()
+            {
+                @Override
+                public Response<Long> publish(String channel, String message)
+                {
+                    RecordingJedis.this.published.add(channel + " " + message);
+                    return null;
+                }
+
+                @Override
+                public void sync() {}
+            };
+        }
+
+        @Override
+        public void close() {}
+    }
+}
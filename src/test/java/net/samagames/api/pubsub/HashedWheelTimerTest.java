@@ -0,0 +1,97 @@
+package net.samagames.api.pubsub;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class HashedWheelTimerTest
+{
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp()
+    {
+        // 8 buckets of 10 milliseconds, the longer delays take several rounds
+        this.timer = new HashedWheelTimer(10L, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.timer.stop();
+    }
+
+    @Test
+    public void runsTasksInDeadlineOrder() throws InterruptedException
+    {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+
+        this.timer.schedule(() -> { order.add(3); done.countDown(); }, 250L, TimeUnit.MILLISECONDS);
+        this.timer.schedule(() -> { order.add(1); done.countDown(); }, 20L, TimeUnit.MILLISECONDS);
+        this.timer.schedule(() -> { order.add(2); done.countDown(); }, 120L, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        assertEquals(3, order.size());
+        assertEquals(1, (int) order.get(0));
+        assertEquals(2, (int) order.get(1));
+        assertEquals(3, (int) order.get(2));
+    }
+
+    @Test
+    public void neverRunsBeforeTheDelay() throws InterruptedException
+    {
+        CountDownLatch done = new CountDownLatch(1);
+        long[] ranAfter = new long[1];
+        long scheduledAt = System.nanoTime();
+
+        this.timer.schedule(() ->
+        {
+            ranAfter[0] = System.nanoTime() - scheduledAt;
+            done.countDown();
+        }, 150L, TimeUnit.MILLISECONDS);
+
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        assertTrue(ranAfter[0] >= TimeUnit.MILLISECONDS.toNanos(150L));
+    }
+
+    @Test
+    public void skipsCancelledTasks() throws InterruptedException
+    {
+        CountDownLatch cancelledRan = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        HashedWheelTimer.Timeout timeout = this.timer.schedule(cancelledRan::countDown, 50L, TimeUnit.MILLISECONDS);
+        this.timer.schedule(done::countDown, 100L, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+
+        assertTrue(done.await(5L, TimeUnit.SECONDS));
+        assertTrue(timeout.isCancelled());
+        assertFalse(cancelledRan.await(50L, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,147 @@
+package net.samagames.api.pubsub;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class PatternDispatcherTest
+{
+    private PatternDispatcher dispatcher;
+    private List<String> received;
+
+    @Before
+    public void setUp()
+    {
+        this.dispatcher = new PatternDispatcher();
+        this.received = new ArrayList<>();
+    }
+
+    @Test
+    public void matchesGlobPatterns()
+    {
+        this.dispatcher.register("games:*", this.receiver());
+        this.dispatcher.register("games:?v?", this.receiver());
+        this.dispatcher.register("games:[a-c]*", this.receiver());
+        this.dispatcher.register("games:\\*", this.receiver());
+
+        assertEquals(3, this.dispatcher.dispatch("games:bvb", "message"));
+        assertEquals(Arrays.asList("games:*", "games:?v?", "games:[a-c]*"), this.sorted());
+
+        this.received.clear();
+        assertEquals(2, this.dispatcher.dispatch("games:*", "message"));
+        assertEquals(Arrays.asList("games:*", "games:\\*"), this.sorted());
+
+        this.received.clear();
+        assertEquals(0, this.dispatcher.dispatch("lobby:bvb", "message"));
+        assertTrue(this.received.isEmpty());
+    }
+
+    @Test
+    public void matchesEscapedBracketsInClasses()
+    {
+        this.dispatcher.register("a[\\]x]b", this.receiver());
+        this.dispatcher.register("c[\\]", this.receiver());
+
+        assertEquals(1, this.dispatcher.dispatch("a]b", "message"));
+        assertEquals(1, this.dispatcher.dispatch("axb", "message"));
+        assertEquals(0, this.dispatcher.dispatch("a\\b", "message"));
+
+        // Without an unescaped closing bracket the class is a literal
+        assertEquals(1, this.dispatcher.dispatch("c[]", "message"));
+        assertEquals(0, this.dispatcher.dispatch("c]", "message"));
+    }
+
+    @Test
+    public void matchesCharactersOutsideAscii()
+    {
+        this.dispatcher.register("\u00e9t\u00e9:*", this.receiver());
+        this.dispatcher.register("caf\u00e9", this.receiver());
+        this.dispatcher.register("caf\u00e8", this.receiver());
+
+        assertEquals(1, this.dispatcher.dispatch("\u00e9t\u00e9:lobby", "message"));
+
+        this.received.clear();
+        assertEquals(1, this.dispatcher.dispatch("caf\u00e9", "message"));
+        assertEquals(Collections.singletonList("caf\u00e9"), this.received);
+
+        assertEquals(0, this.dispatcher.dispatch("cafe", "message"));
+    }
+
+    @Test
+    public void firesEachReceiverOnceForOverlappingStars()
+    {
+        this.dispatcher.register("*a*a*", this.receiver());
+
+        assertEquals(1, this.dispatcher.dispatch("aaaaaa", "message"));
+        assertEquals(Collections.singletonList("*a*a*"), this.received);
+    }
+
+    @Test
+    public void reportsReplacedUpstreamPatterns()
+    {
+        PatternDispatcher.UpstreamChange change = this.dispatcher.register("ab*", this.receiver());
+        assertEquals(Collections.singleton("ab*"), change.getAdded());
+        assertTrue(change.getRemoved().isEmpty());
+
+        IPatternReceiver shorter = this.receiver();
+        change = this.dispatcher.register("a*", shorter);
+        assertEquals(Collections.singleton("a*"), change.getAdded());
+        assertEquals(Collections.singleton("ab*"), change.getRemoved());
+
+        change = this.dispatcher.register("abc", this.receiver());
+        assertTrue(change.isEmpty());
+
+        change = this.dispatcher.unregister(shorter);
+        assertEquals(Collections.singleton("ab*"), change.getAdded());
+        assertEquals(Collections.singleton("a*"), change.getRemoved());
+        assertEquals(Collections.singleton("ab*"), this.dispatcher.getUpstreamPatterns());
+    }
+
+    @Test
+    public void stopsFiringUnregisteredReceivers()
+    {
+        IPatternReceiver receiver = this.receiver();
+        this.dispatcher.register("a*", receiver);
+        this.dispatcher.register("b*", receiver);
+        this.dispatcher.unregister(receiver);
+
+        assertEquals(0, this.dispatcher.dispatch("abc", "message"));
+        assertEquals(0, this.dispatcher.size());
+        assertTrue(this.dispatcher.getUpstreamPatterns().isEmpty());
+    }
+
+    private IPatternReceiver receiver()
+    {
+        return (pattern, channel, message) -> this.received.add(pattern);
+    }
+
+    private List<String> sorted()
+    {
+        List<String> sorted = new ArrayList<>(this.received);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
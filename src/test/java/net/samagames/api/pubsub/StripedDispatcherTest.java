@@ -0,0 +1,116 @@
+package net.samagames.api.pubsub;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class StripedDispatcherTest
+{
+    private StripedDispatcher dispatcher;
+
+    @After
+    public void tearDown()
+    {
+        if (this.dispatcher != null)
+            this.dispatcher.shutdown();
+    }
+
+    @Test
+    public void keepsTheOrderOfEveryChannel() throws InterruptedException
+    {
+        this.dispatcher = new StripedDispatcher(4, 16, OverflowPolicy.BLOCK);
+
+        int channels = 8;
+        int messages = 1000;
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(channels * messages);
+
+        for (int i = 0; i < messages; i++)
+        {
+            for (int c = 0; c < channels; c++)
+            {
+                String channel = "channel" + c;
+                int sequence = i;
+
+                this.dispatcher.execute(channel, () ->
+                {
+                    received.computeIfAbsent(channel, key -> new ArrayList<>()).add(sequence);
+                    done.countDown();
+                });
+            }
+        }
+
+        assertTrue(done.await(10L, TimeUnit.SECONDS));
+
+        for (List<Integer> sequences : received.values())
+            for (int i = 0; i < messages; i++)
+                assertEquals(i, (int) sequences.get(i));
+    }
+
+    @Test
+    public void neverBlocksAfterShutdown() throws InterruptedException
+    {
+        this.dispatcher = new StripedDispatcher(1, 1, OverflowPolicy.BLOCK);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        this.dispatcher.execute("channel", () ->
+        {
+            started.countDown();
+
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException ignored)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        this.dispatcher.execute("channel", () -> {});
+
+        // The queue is full, this caller blocks until the shutdown
+        Thread blocked = new Thread(() -> this.dispatcher.execute("channel", () -> {}));
+        blocked.start();
+
+        this.dispatcher.shutdown();
+        release.countDown();
+        blocked.join(5000L);
+
+        assertFalse(blocked.isAlive());
+        assertEquals(0, this.dispatcher.getQueueDepth());
+        assertEquals(2, this.dispatcher.getDroppedMessages());
+
+        this.dispatcher.execute("channel", () -> {});
+        assertEquals(3, this.dispatcher.getDroppedMessages());
+    }
+}
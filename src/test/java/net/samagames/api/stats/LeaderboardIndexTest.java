@@ -0,0 +1,131 @@
+package net.samagames.api.stats;
+
+import net.samagames.api.games.GamesNames;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class LeaderboardIndexTest
+{
+    @Test
+    public void ranksFollowTheScoresAfterRandomUpdates()
+    {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Random random = new Random(42L);
+        List<UUID> players = new ArrayList<>();
+        Map<UUID, Long> scores = new HashMap<>();
+
+        for (int i = 0; i < 300; i++)
+            players.add(new UUID(0L, i));
+
+        for (int i = 0; i < 5000; i++)
+        {
+            int player = random.nextInt(players.size());
+
+            if (random.nextInt(10) == 0)
+            {
+                index.remove(players.get(player));
+                scores.remove(players.get(player));
+            }
+            else
+            {
+                // Distinct scores, so the expected order never depends on the clock
+                long score = random.nextInt(100000) * 1000L + player;
+
+                index.update(players.get(player), "Player" + player, score);
+                scores.put(players.get(player), score);
+            }
+        }
+
+        List<UUID> expected = new ArrayList<>(scores.keySet());
+        expected.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+
+        assertEquals(expected.size(), index.size());
+
+        for (int i = 0; i < expected.size(); i++)
+            assertEquals(i + 1, index.rank(expected.get(i)));
+
+        List<LeaderboardIndex.Entry> page = index.top(0, expected.size());
+
+        for (int i = 0; i < page.size(); i++)
+        {
+            assertEquals(expected.get(i), page.get(i).getPlayer());
+            assertEquals(i + 1, page.get(i).getRank());
+        }
+    }
+
+    @Test
+    public void pagesAndNeighboursUseTheSpans()
+    {
+        LeaderboardIndex index = new LeaderboardIndex();
+
+        for (int i = 0; i < 100; i++)
+            index.update(new UUID(0L, i), "Player" + i, i);
+
+        List<LeaderboardIndex.Entry> page = index.top(20, 10);
+
+        assertEquals(10, page.size());
+        assertEquals(21, page.get(0).getRank());
+        assertEquals(79L, page.get(0).getScore());
+
+        List<LeaderboardIndex.Entry> around = index.around(new UUID(0L, 98), 3);
+
+        assertEquals(5, around.size());
+        assertEquals(1, around.get(0).getRank());
+        assertEquals(95L, around.get(4).getScore());
+
+        assertTrue(index.top(100, 10).isEmpty());
+        assertTrue(index.around(new UUID(1L, 0), 3).isEmpty());
+    }
+
+    @Test
+    public void dropsTheLowestScoresAboveTheMaximumSize()
+    {
+        LeaderboardIndex index = new LeaderboardIndex(10, 0L);
+
+        for (int i = 0; i < 50; i++)
+            index.update(new UUID(0L, i), "Player" + i, (i * 7) % 50);
+
+        assertEquals(10, index.size());
+        assertEquals(49L, index.top(0, 1).get(0).getScore());
+        assertEquals(40L, index.top(9, 1).get(0).getScore());
+        assertNull(index.get(new UUID(0L, 0)));
+    }
+
+    @Test
+    public void sharesOneIndexByStat()
+    {
+        LeaderboardIndex index = LeaderboardIndex.forStat(GamesNames.GLOBAL, "kills");
+
+        assertSame(index, LeaderboardIndex.forStat(GamesNames.GLOBAL, "kills"));
+        assertNotSame(index, LeaderboardIndex.forStat(GamesNames.GLOBAL, "wins"));
+    }
+}
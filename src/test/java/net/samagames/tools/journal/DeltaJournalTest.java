@@ -0,0 +1,172 @@
+package net.samagames.tools.journal;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/*
+ * This file is part of SamaGamesAPI.
+ *
+ * SamaGamesAPI is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * SamaGamesAPI is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with SamaGamesAPI.  If not, see <http://www.gnu.org/licenses/>.
+ */
+public class DeltaJournalTest
+{
+    private static final UUID PLAYER = UUID.fromString("0c6b5fc6-b9ad-4a36-9c4c-8b1c1b4d6e0f");
+    private static final String GAME = "quake";
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        this.file = File.createTempFile("delta-journal", ".dat");
+        this.file.delete();
+    }
+
+    @After
+    public void tearDown()
+    {
+        this.file.delete();
+    }
+
+    @Test
+    public void replaysRecordsAfterReopening() throws IOException
+    {
+        // A tiny mapping forces the journal to grow
+        DeltaJournal journal = new DeltaJournal(this.file, GAME, 32);
+
+        for (int i = 0; i < 100; i++)
+            journal.append(DeltaJournal.COINS, PLAYER, "kill", i);
+
+        journal.append(DeltaJournal.WINS, PLAYER, null, 1L);
+        journal.close();
+
+        journal = new DeltaJournal(this.file, GAME, 32);
+        List<DeltaJournal.Record> records = journal.readAll();
+        journal.close();
+
+        assertEquals(101, records.size());
+
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(DeltaJournal.COINS, records.get(i).getType());
+            assertEquals(PLAYER, records.get(i).getPlayer());
+            assertEquals(GAME, records.get(i).getGame());
+            assertEquals("kill", records.get(i).getKey());
+            assertEquals(i, records.get(i).getValue());
+        }
+
+        assertEquals(DeltaJournal.WINS, records.get(100).getType());
+        assertEquals("", records.get(100).getKey());
+    }
+
+    @Test
+    public void stopsAtTheFirstCorruptedRecord() throws IOException
+    {
+        DeltaJournal journal = new DeltaJournal(this.file, GAME);
+        journal.append(DeltaJournal.COINS, PLAYER, "kill", 10L);
+        journal.append(DeltaJournal.COINS, PLAYER, "kill", 20L);
+        journal.append(DeltaJournal.COINS, PLAYER, "kill", 30L);
+        journal.close();
+
+        // File header, then the first record header and payload, then the second record header
+        int payloadSize = 1 + 16 + 2 + GAME.length() + 2 + "kill".length() + 8;
+        long secondValue = 8 + 8 + payloadSize + 8 + payloadSize - 1;
+
+        try (RandomAccessFile raw = new RandomAccessFile(this.file, "rw"))
+        {
+            raw.seek(secondValue);
+            int value = raw.read();
+
+            raw.seek(secondValue);
+            raw.write(value ^ 0xFF);
+        }
+
+        journal = new DeltaJournal(this.file, GAME);
+        List<DeltaJournal.Record> records = journal.readAll();
+
+        assertEquals(1, records.size());
+        assertEquals(10L, records.get(0).getValue());
+
+        // Appends continue after the last valid record
+        journal.append(DeltaJournal.COINS, PLAYER, "win", 40L);
+        records = journal.readAll();
+        journal.close();
+
+        assertEquals(2, records.size());
+        assertEquals(40L, records.get(1).getValue());
+    }
+
+    @Test
+    public void forgetsClearedRecords() throws IOException
+    {
+        DeltaJournal journal = new DeltaJournal(this.file, GAME);
+        journal.append(DeltaJournal.PLAYED_TIME, PLAYER, null, 120L);
+        journal.clear();
+        journal.close();
+
+        journal = new DeltaJournal(this.file, GAME);
+        assertEquals(0, journal.readAll().size());
+        journal.close();
+    }
+
+    @Test
+    public void keepsTheGameOfTheRecords() throws IOException
+    {
+        DeltaJournal journal = new DeltaJournal(this.file, "uhcrun");
+        journal.append(DeltaJournal.WINS, PLAYER, null, 1L);
+        journal.close();
+
+        // Another game keeps the record as it is
+        journal = new DeltaJournal(this.file, GAME);
+        List<DeltaJournal.Record> records = journal.readAll();
+
+        journal.clear();
+        journal.append(records.get(0));
+        journal.append(DeltaJournal.COINS, PLAYER, "kill", 10L);
+        records = journal.readAll();
+        journal.close();
+
+        assertEquals(2, records.size());
+        assertEquals("uhcrun", records.get(0).getGame());
+        assertEquals(DeltaJournal.WINS, records.get(0).getType());
+        assertEquals(GAME, records.get(1).getGame());
+    }
+
+    @Test
+    public void resetsAJournalOfAnOlderFormat() throws IOException
+    {
+        DeltaJournal journal = new DeltaJournal(this.file, GAME);
+        journal.append(DeltaJournal.WINS, PLAYER, null, 1L);
+        journal.close();
+
+        try (RandomAccessFile raw = new RandomAccessFile(this.file, "rw"))
+        {
+            raw.seek(4);
+            raw.writeInt(1);
+        }
+
+        journal = new DeltaJournal(this.file, GAME);
+        assertEquals(0, journal.readAll().size());
+        journal.close();
+    }
+}